@@ -2,8 +2,8 @@ package main;
 import javax.swing.*;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.util.*;
@@ -11,13 +11,22 @@ import java.util.*;
 public class Main extends JFrame {
 
     private JTable table;
-    private DefaultTableModel model;
+    private ProcessTableModel model;
     private JTextField processField;
+    private JTextField cpuField;
     private JButton submitButton, calcButton;
-    private JButton compareButton;
+    private JButton compareButton, tuneButton, traceButton;
+    private JFileChooser traceChooser; // Created on first use, then remembers the folder
     private JPanel inputPanel, tablePanel, ganttPanel;
     private JScrollPane ganttScrollPane; // Declared as a member variable
-    private ArrayList<Process> processes;
+    private JLabel summaryLabel; // Extended statistics under the results table
+    private Workload workload;
+    private ScheduleResult lastResult; // Result shown in the table and Gantt chart
+    private boolean showingTrace; // An opened trace covers the input table until it is closed
+    private final ResultCache resultCache = new ResultCache(16); // Reused by re-runs and the comparison dialog
+    private final GanttRenderer ganttRenderer = new GanttRenderer();
+    private GanttTileCache ganttTiles; // Pre-rendered chart tiles, created with the Gantt panel
+    private double burstWeight = Scheduler.BURST_WEIGHT, waitWeight = Scheduler.WAIT_WEIGHT; // Dynamic Priority Boost weights
 
     // Updated color scheme and styling constants
     private static final Color DARK_BACKGROUND = new Color(18, 18, 24);
@@ -31,6 +40,7 @@ public class Main extends JFrame {
     private static final Color TABLE_ROW_EVEN = new Color(40, 45, 50);
     private static final Color TABLE_ROW_ODD = new Color(50, 55, 60);
     private static final Color HIGHLIGHT_COLOR = new Color(0, 180, 170);
+    private static final int MAX_GUI_CPUS = 16; // One Gantt lane per CPU; larger machines run through BatchRunner
 
 
     public Main() {
@@ -41,7 +51,6 @@ public class Main extends JFrame {
         setLayout(new BorderLayout());
 
         setUIFont(new Font("Segoe UI", Font.PLAIN, 14));
-        processes = new ArrayList<>();
         setupUI();
     }
 
@@ -73,9 +82,22 @@ public class Main extends JFrame {
         ));
         inputPanel.add(processField);
 
+        JLabel cpuLabel = new JLabel("CPUs:");
+        cpuLabel.setForeground(TEXT_COLOR);
+        cpuLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        inputPanel.add(cpuLabel);
+
+        cpuField = createStyledField("1", 3);
+        cpuField.setToolTipText("Simulated CPUs, each with its own ready queue (1-" + MAX_GUI_CPUS + ")");
+        inputPanel.add(cpuField);
+
         submitButton = createStyledButton(" Create Table");
         calcButton = createStyledButton("Run Scheduling");
         compareButton = createStyledButton("Compare");
+        tuneButton = createStyledButton("Tune Weights");
+        tuneButton.setToolTipText("Search Dynamic Priority Boost weights for the current table");
+        traceButton = createStyledButton("Trace");
+        traceButton.setToolTipText("Save the current schedule as a binary trace, or open one");
         calcButton.setEnabled(false);
 
         // Add subtle spacing between buttons
@@ -85,6 +107,10 @@ public class Main extends JFrame {
         inputPanel.add(calcButton);
         inputPanel.add(Box.createHorizontalStrut(5));
         inputPanel.add(compareButton);
+        inputPanel.add(Box.createHorizontalStrut(5));
+        inputPanel.add(tuneButton);
+        inputPanel.add(Box.createHorizontalStrut(5));
+        inputPanel.add(traceButton);
 
         add(inputPanel, BorderLayout.NORTH);
 
@@ -103,6 +129,10 @@ public class Main extends JFrame {
             }
         };
         ganttPanel.setBackground(GANTT_BACKGROUND);
+        ganttTiles = new GanttTileCache(ganttPanel, ganttRenderer, 64L << 20);
+        ganttPanel.setPreferredSize(new Dimension(1000, GanttRenderer.PANEL_HEIGHT));
+        ganttPanel.setToolTipText("Ctrl + mouse wheel to zoom");
+        ganttPanel.addMouseWheelListener(this::handleGanttWheel);
         ganttPanel.setBorder(BorderFactory.createTitledBorder(
                 BorderFactory.createEmptyBorder(10, 15, 10, 15),
                 "GANTT CHART",
@@ -115,14 +145,50 @@ public class Main extends JFrame {
         // Assign to the member variable, no local declaration
         ganttScrollPane = new JScrollPane(ganttPanel);
         ganttScrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
-        ganttScrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_NEVER);
+        ganttScrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
         ganttScrollPane.getHorizontalScrollBar().setUnitIncrement(16);
         ganttScrollPane.setBorder(BorderFactory.createEmptyBorder());
         add(ganttScrollPane, BorderLayout.SOUTH);
+        ganttScrollPane.getViewport().addComponentListener(new java.awt.event.ComponentAdapter() {
+            @Override
+            public void componentResized(java.awt.event.ComponentEvent e) {
+                updateGanttSize();
+            }
+        });
 
         submitButton.addActionListener(e -> createProcessTable());
         calcButton.addActionListener(e -> runScheduling());
         compareButton.addActionListener(e -> showComparisonDialog());
+        tuneButton.addActionListener(e -> showWeightSweepDialog());
+        JPopupMenu traceMenu = new JPopupMenu();
+        JMenuItem openTraceItem = new JMenuItem("Open Trace...");
+        JMenuItem saveTraceItem = new JMenuItem("Save Trace...");
+        JMenuItem closeTraceItem = new JMenuItem("Close Trace");
+        openTraceItem.addActionListener(e -> openTrace());
+        saveTraceItem.addActionListener(e -> saveTrace());
+        closeTraceItem.addActionListener(e -> closeTrace());
+        traceMenu.add(openTraceItem);
+        traceMenu.add(saveTraceItem);
+        traceMenu.add(closeTraceItem);
+        traceButton.addActionListener(e -> {
+            saveTraceItem.setEnabled(lastResult != null && !showingTrace);
+            closeTraceItem.setEnabled(showingTrace);
+            traceMenu.show(traceButton, 0, traceButton.getHeight());
+        });
+    }
+
+    // Text field matching the process count field
+    private JTextField createStyledField(String text, int columns) {
+        JTextField field = new JTextField(text, columns);
+        field.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        field.setBackground(MEDIUM_BACKGROUND);
+        field.setForeground(TEXT_COLOR);
+        field.setCaretColor(TEXT_COLOR);
+        field.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(ACCENT_COLOR, 1),
+                BorderFactory.createEmptyBorder(5, 8, 5, 8)
+        ));
+        return field;
     }
 
     // Enhanced button styling with hover effects
@@ -172,52 +238,44 @@ public class Main extends JFrame {
             return;
         }
 
-        String[] columns = {"PID", "Arrival Time", "Burst Time", "Priority"};
-        model = new DefaultTableModel(columns, num) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column > 0; // Make PID column non-editable
-            }
-        };
+        model = new ProcessTableModel(num);
+        model.addTableModelListener(e -> SwingUtilities.invokeLater(this::showInputTable));
         table = new JTable(model);
         styleTable(table);
 
-        // Initialize PID column
-        for (int i = 0; i < num; i++) {
-            model.setValueAt("P" + (i + 1), i, 0);
-        }
-
         tablePanel.removeAll();
         tablePanel.add(new JScrollPane(table), BorderLayout.CENTER);
         tablePanel.revalidate();
         tablePanel.repaint();
-        calcButton.setEnabled(true);
+        setShowingTrace(false); // The new table replaces any trace
     }
 
     private void runScheduling() {
-        processes.clear();
-        for (int i = 0; i < model.getRowCount(); i++) {
-            try {
-                int at = Integer.parseInt(model.getValueAt(i, 1).toString());
-                int bt = Integer.parseInt(model.getValueAt(i, 2).toString());
-                int pr = Integer.parseInt(model.getValueAt(i, 3).toString());
-
-                if (at < 0 || bt <= 0 || pr < 0) {
-                    JOptionPane.showMessageDialog(this, "Invalid input at row " + (i + 1) + ". Arrival Time must be >= 0, Burst Time > 0, Priority >= 0.");
-                    return;
-                }
-                processes.add(new Process(i + 1, at, bt, pr));
-            } catch (NumberFormatException e) {
-                JOptionPane.showMessageDialog(this, "Invalid input (non-numeric) at row " + (i + 1) + ". Please enter valid numbers.");
-                return;
-            } catch (NullPointerException e) {
-                JOptionPane.showMessageDialog(this, "Missing input at row " + (i + 1) + ". Please fill all fields.");
-                return;
+        // A table edit still in progress would otherwise be ignored
+        if (table.isEditing()) {
+            table.getCellEditor().stopCellEditing();
+        }
+        int row = model.firstInvalidRow();
+        if (row >= 0) {
+            int problem = model.problemAt(row);
+            if (problem == ProcessTableModel.MISSING) {
+                JOptionPane.showMessageDialog(this, "Missing input at row " + (row + 1) + ". Please fill all fields.");
+            } else if (problem == ProcessTableModel.NON_NUMERIC) {
+                JOptionPane.showMessageDialog(this, "Invalid input (non-numeric) at row " + (row + 1) + ". Please enter valid numbers.");
+            } else {
+                JOptionPane.showMessageDialog(this, "Invalid input at row " + (row + 1) + ". Arrival Time must be >= 0, Burst Time > 0, Priority >= 0.");
             }
+            return;
+        }
+        workload = model.toWorkload();
+        int cpus = readCpuCount();
+        if (cpus < 0) {
+            return;
         }
 
 
-        String[] options = {"Priority Preemptive", "Priority Non-Preemptive", "Dynamic Priority Boost (My Algorithm)"};
+        String[] options = {"Priority Preemptive", "Priority Non-Preemptive", "Dynamic Priority Boost (My Algorithm)",
+                "Round Robin Priority"};
         int choice = JOptionPane.showOptionDialog(this,
                 "Choose scheduling algorithm:",
                 "Algorithm Selection",
@@ -227,60 +285,29 @@ public class Main extends JFrame {
                 options,
                 options[2]);
 
-        // Set algorithm name based on selection
-        String algorithmName;
-        switch (choice) {
-            case 0:
-                algorithmName = "Priority Preemptive Scheduling";
-                schedulePriorityPreemptive();
-                break;
-            case 1:
-                algorithmName = "Priority Non-Preemptive Scheduling";
-                schedulePriorityNonPreemptive();
-                break;
-            case 2:
-            default:
-                algorithmName = "Dynamic Priority Boost Scheduling";
-                scheduleDynamicPriorityBoost();
-                break;
-        }
+        // Default to Dynamic if dialog is closed; options follow Scheduler.ALGORITHM_NAMES
+        int algorithm = choice >= 0 ? choice : 2;
+        lastResult = resultCache.get(workload, algorithm, cpus, burstWeight, waitWeight);
 
         updateTable();
-        ganttPanel.repaint();
+        showGanttChart(lastResult);
 
         // Show completion dialog
-        showAlgorithmCompletionDialog(algorithmName);
-
-
-        // Reset dynamic priority values and other process states for a fresh run
-        for (Process p : processes) {
-            p.calculatedDynamicPriority = p.priority;
-            p.remainingTime = p.burstTime;
-            p.completionTime = -1;
-            p.waitingTime = 0;
-            p.turnaroundTime = 0;
-            p.firstStartTime = -1;
-            p.preemptionMoments.clear();
-            p.restartMoments.clear();
-            p.timeLastEnteredReadyQueue = p.arrivalTime;
-        }
-
+        showAlgorithmCompletionDialog(Scheduler.ALGORITHM_NAMES[algorithm] + (cpus > 1 ? " on " + cpus + " CPUs" : ""));
+    }
 
-        switch (choice) {
-            case 0:
-                schedulePriorityPreemptive();
-                break;
-            case 1:
-                schedulePriorityNonPreemptive();
-                break;
-            case 2:
-            default: // Default to Dynamic if dialog is closed or other option is chosen
-                scheduleDynamicPriorityBoost();
-                break;
+    // CPU count from the input panel, or -1 after telling the user it is invalid
+    private int readCpuCount() {
+        try {
+            int cpus = Integer.parseInt(cpuField.getText().trim());
+            if (cpus >= 1 && cpus <= MAX_GUI_CPUS) {
+                return cpus;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
         }
-
-        updateTable();
-        ganttPanel.repaint();
+        JOptionPane.showMessageDialog(this, "Please enter a number of CPUs between 1 and " + MAX_GUI_CPUS + ".");
+        return -1;
     }
 
     private void showAlgorithmCompletionDialog(String algorithmName) {
@@ -327,397 +354,207 @@ public class Main extends JFrame {
         completionDialog.setVisible(true);
     }
 
-    private void schedulePriorityPreemptive() {
-        schedulePriorityPreemptive(this.processes);
-    }
-
-    private void schedulePriorityPreemptive(ArrayList<Process> processes) {
-        Process.lastAlgorithmUsed = 0;
-        int time = 0, completed = 0;
-        ArrayList<Integer> gantt = new ArrayList<>();
-        int n = processes.size();
-
-        // Reset process states for this run
-        for (Process p : processes) {
-            p.remainingTime = p.burstTime;
-            p.completionTime = -1;
-            p.waitingTime = 0;
-            p.turnaroundTime = 0;
+    // Line of statistics under the results table
+    private void showSummaryLine(String text) {
+        if (summaryLabel == null) {
+            summaryLabel = new JLabel();
+            summaryLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+            summaryLabel.setForeground(TEXT_COLOR);
+            summaryLabel.setBorder(new EmptyBorder(8, 5, 0, 5));
         }
+        summaryLabel.setText(text);
+        tablePanel.add(summaryLabel, BorderLayout.SOUTH); // Dropped with the table when a new one is created
+        tablePanel.revalidate();
+    }
 
-        while (completed != n) {
-            Process current = null;
-            int minPriority = Integer.MAX_VALUE;
-            // Find highest priority process that has arrived and is not completed
-            for (Process p : processes) {
-                if (p.arrivalTime <= time && p.remainingTime > 0 && p.priority < minPriority) {
-                    minPriority = p.priority;
-                    current = p;
-                }
-            }
-
-            if (current == null) {
-                gantt.add(-1); // IDLE
-                time++;
-                continue;
-            }
-
-            gantt.add(current.pid);
-            current.remainingTime--;
-            time++;
-
-            if (current.remainingTime == 0) {
-                current.completionTime = time;
-                current.turnaroundTime = current.completionTime - current.arrivalTime;
-                current.waitingTime = current.turnaroundTime - current.burstTime;
-                completed++;
-            }
+    private JFileChooser traceChooser() {
+        if (traceChooser == null) {
+            traceChooser = new JFileChooser();
+            traceChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Schedule traces (*.trace)", "trace"));
         }
-
-        Process.ganttChart = gantt;
+        return traceChooser;
     }
 
-    private void schedulePriorityNonPreemptive() {
-        schedulePriorityNonPreemptive(this.processes);
+    // Shows a trace written by this window or by BatchRunner --trace. The file is only mapped, so even a very
+    // large trace opens at once; the table and Gantt chart read just the rows and segments on screen.
+    private void openTrace() {
+        if (traceChooser().showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.io.File file = traceChooser.getSelectedFile();
+        TraceFile trace;
+        try {
+            trace = TraceFile.open(file);
+        } catch (java.io.IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not open trace: " + e.getMessage(), "Trace Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (table == null) {
+            table = new JTable();
+            tablePanel.removeAll();
+            tablePanel.add(new JScrollPane(table), BorderLayout.CENTER);
+        }
+        table.setModel(new TraceTableModel(trace));
+        styleTable(table);
+        setShowingTrace(true);
+        showSummaryLine(String.format(Locale.ROOT, "Trace %s: %s, %d processes on %d CPU%s",
+                file.getName(), Scheduler.ALGORITHM_NAMES[trace.algorithm], trace.processes, trace.cpus, trace.cpus == 1 ? "" : "s"));
+        SegmentSource[] lanes = new SegmentSource[trace.cpus];
+        for (int cpu = 0; cpu < lanes.length; cpu++) {
+            lanes[cpu] = trace.lane(cpu);
+        }
+        showGanttChart(lanes);
     }
 
-    private void schedulePriorityNonPreemptive(ArrayList<Process> processes) {
-        Process.lastAlgorithmUsed = 1;
-        int time = 0;
-        ArrayList<Integer> gantt = new ArrayList<>();
-        ArrayList<Process> readyQueue = new ArrayList<>();
-
-        // Reset process states for this run
-        for (Process p : processes) {
-            p.remainingTime = p.burstTime;
-            p.completionTime = -1;
-            p.waitingTime = 0;
-            p.turnaroundTime = 0;
+    // Puts the input table and the chart of the last run back in place of the trace
+    private void closeTrace() {
+        if (model != null) {
+            table.setModel(model);
+            styleTable(table);
+            tablePanel.remove(summaryLabel);
+        } else {
+            table = null;
+            tablePanel.removeAll();
         }
-
-        ArrayList<Process> tempProcesses = new ArrayList<>(processes); // Create a mutable copy
-
-        while (!tempProcesses.isEmpty() || !readyQueue.isEmpty()) {
-            // Add arrived processes to ready queue
-            Iterator<Process> it = tempProcesses.iterator();
-            while (it.hasNext()) {
-                Process p = it.next();
-                if (p.arrivalTime <= time) {
-                    readyQueue.add(p);
-                    it.remove(); // Remove from temporary list once added to ready queue
-                }
-            }
-
-            if (readyQueue.isEmpty()) {
-                gantt.add(-1); // IDLE
-                time++;
-                continue;
-            }
-
-            // Sort ready queue by priority (lower priority number is higher priority)
-            // If priorities are same, sort by arrival time (FCFS)
-            readyQueue.sort((p1, p2) -> {
-                if (p1.priority != p2.priority) {
-                    return Integer.compare(p1.priority, p2.priority);
-                }
-                return Integer.compare(p1.arrivalTime, p2.arrivalTime);
-            });
-
-            Process current = readyQueue.remove(0); // Get the highest priority process
-
-            // Execute the process for its full burst time
-            for (int i = 0; i < current.burstTime; i++) {
-                gantt.add(current.pid);
-                time++; // Increment time for each unit of execution
-            }
-
-            current.completionTime = time;
-            current.turnaroundTime = current.completionTime - current.arrivalTime;
-            current.waitingTime = current.turnaroundTime - current.burstTime;
-            current.remainingTime = 0; // Mark as completed
+        tablePanel.revalidate();
+        tablePanel.repaint();
+        if (lastResult != null) {
+            showGanttChart(lastResult);
+        } else {
+            showGanttChart(new SegmentSource[0]);
         }
-
-        Process.ganttChart = gantt;
+        setShowingTrace(false);
     }
 
-
-    private void scheduleDynamicPriorityBoost() {
-        scheduleDynamicPriorityBoost(this.processes);
+    // Run Scheduling, Compare and Tune Weights read the input table, which a trace hides
+    private void setShowingTrace(boolean showing) {
+        showingTrace = showing;
+        calcButton.setEnabled(!showing && model != null);
+        compareButton.setEnabled(!showing);
+        tuneButton.setEnabled(!showing);
     }
 
-    private void scheduleDynamicPriorityBoost(ArrayList<Process> processes) {
-        Process.lastAlgorithmUsed = 2;
-        int currentTime = 0;
-        ArrayList<Process> readyQueue = new ArrayList<>();
-        ArrayList<Process> completedProcesses = new ArrayList<>();
-        Process currentlyRunningProcess = null;
-        ArrayList<Integer> gantt = new ArrayList<>();
-
-        // Weights for dynamic priority calculation (adjust as needed)
-        final double burstWeight = 0.5; // Lower value means burst time has more negative impact (higher priority for shorter burst)
-        final double waitWeight = 2.0; // Higher value means waiting time has more positive impact (higher priority for longer wait)
-
-        // Reset process states for this run
-        for (Process p : processes) {
-            p.remainingTime = p.burstTime;
-            p.firstStartTime = -1;
-            p.preemptionMoments.clear();
-            p.restartMoments.clear();
-            p.completionTime = -1;
-            p.waitingTime = 0;
-            p.turnaroundTime = 0;
-            p.timeLastEnteredReadyQueue = p.arrivalTime; // Initialize
-            p.calculatedDynamicPriority = p.priority; // Initialize
+    private void saveTrace() {
+        if (lastResult == null) {
+            return;
         }
-
-        // Loop until all processes are completed
-        while (completedProcesses.size() < processes.size()) {
-            // Add newly arrived processes to the ready queue
-            for (Process p : processes) {
-                if (p.arrivalTime <= currentTime && p.completionTime == -1 && !readyQueue.contains(p)) {
-                    readyQueue.add(p);
-                    p.timeLastEnteredReadyQueue = currentTime; // Record time of entry into ready queue
-                }
-            }
-
-            Process nextProcess = null;
-            double bestDynamicPriority = Double.MAX_VALUE; // Lower value indicates higher priority
-
-            // Calculate dynamic priority for processes in the ready queue
-            for (Process p : readyQueue) {
-                // Time spent waiting since last entered ready queue
-                double waitTimeInQueue = currentTime - p.timeLastEnteredReadyQueue;
-
-                // Dynamic Priority Formula: OriginalPriority + (RemainingBurstTime * burstWeight) - (WaitTimeInQueue * waitWeight)
-                // This formula aims to:
-                // - Reward processes with lower original priority number (higher original priority)
-                // - Penalize processes with longer remaining burst time (lower priority for longer burst)
-                // - Reward processes that have waited longer (higher priority for longer wait)
-                double currentDynamicPriority = p.priority +
-                        (p.remainingTime * burstWeight) -
-                        (waitTimeInQueue * waitWeight);
-                p.calculatedDynamicPriority = currentDynamicPriority;
-
-                // Select the process with the lowest dynamic priority value
-                if (currentDynamicPriority < bestDynamicPriority) {
-                    bestDynamicPriority = currentDynamicPriority;
-                    nextProcess = p;
-                } else if (currentDynamicPriority == bestDynamicPriority) {
-                    // Tie-breaking: FCFS for processes with same calculated dynamic priority
-                    if (nextProcess == null || p.arrivalTime < nextProcess.arrivalTime) {
-                        nextProcess = p;
-                    }
-                }
-            }
-
-            // If no process is ready, add IDLE to Gantt chart and advance time
-            if (nextProcess == null) {
-                gantt.add(-1); // Represents IDLE time
-                currentTime++;
-                continue;
-            }
-
-            // Preemption logic: if a different process is selected, record preemption
-            if (currentlyRunningProcess != null && currentlyRunningProcess != nextProcess) {
-                currentlyRunningProcess.preemptionMoments.add(currentTime);
-                currentlyRunningProcess.timeLastEnteredReadyQueue = currentTime; // Process goes back to ready queue
-                if (nextProcess.firstStartTime != -1) {
-                    nextProcess.restartMoments.add(currentTime); // This process is restarting
-                }
-            }
-
-            // Record first start time if it's the first time this process runs
-            if (nextProcess.firstStartTime == -1) {
-                nextProcess.firstStartTime = currentTime;
-            }
-
-            currentlyRunningProcess = nextProcess;
-            gantt.add(currentlyRunningProcess.pid); // Add process to Gantt chart
-            currentlyRunningProcess.remainingTime--; // Decrement remaining burst time
-            currentTime++; // Advance current time by one unit
-
-            // If the current process has completed execution
-            if (currentlyRunningProcess.remainingTime == 0) {
-                currentlyRunningProcess.completionTime = currentTime;
-                readyQueue.remove(currentlyRunningProcess); // Remove from ready queue
-                completedProcesses.add(currentlyRunningProcess); // Add to completed list
-                currentlyRunningProcess = null; // No process is currently running
-            }
+        if (traceChooser().showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        java.io.File chosen = traceChooser.getSelectedFile();
+        java.io.File file = chosen.getName().contains(".") ? chosen : new java.io.File(chosen.getPath() + ".trace");
+        ScheduleResult result = lastResult;
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws java.io.IOException {
+                TraceFile.write(result, file);
+                return null;
+            }
 
-        // Calculate Waiting Time and Turnaround Time for completed processes
-        for (Process p : completedProcesses) {
-            p.turnaroundTime = p.completionTime - p.arrivalTime;
-
-            // Calculate waiting time based on first start time and preemption/restart moments
-            p.waitingTime = (p.firstStartTime - p.arrivalTime); // Initial wait before first execution
-
-            // Add all waiting periods due to preemption
-            for (int i = 0; i < p.preemptionMoments.size(); i++) {
-                // Ensure there's a corresponding restart moment for each preemption
-                if (i < p.restartMoments.size()) {
-                    p.waitingTime += (p.restartMoments.get(i) - p.preemptionMoments.get(i));
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    JOptionPane.showMessageDialog(Main.this, "Could not save trace: " + e.getMessage(), "Trace Error", JOptionPane.ERROR_MESSAGE);
                 }
             }
-            // If the process was preempted and never restarted (this shouldn't happen with correct logic leading to completion),
-            // or if it was the last process running and didn't finish right at the end.
-            // This is a complex part, for simplicity, sometimes (Turnaround Time - Burst Time) is used as a fallback if detailed tracking is problematic.
-            // However, your current detailed tracking is more accurate for preemptive.
-        }
-
-        Process.ganttChart = gantt;
+        }.execute();
     }
 
-
     private void updateTable() {
-        String[] columnNames;
-        if (Process.lastAlgorithmUsed == 2) {
-            columnNames = new String[]{"PID", "Arrival Time", "Burst Time", "Priority", "Waiting Time", "Turnaround Time", "Dynamic Priority"};
-        } else {
-            columnNames = new String[]{"PID", "Arrival Time", "Burst Time", "Priority", "Waiting Time", "Turnaround Time"};
-        }
-
-        DefaultTableModel newModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                // Make all cells non-editable after scheduling results are displayed
-                return false;
-            }
-        };
-
-        double totalWT = 0, totalTAT = 0;
-
-        // Sort processes by PID for consistent display
-        processes.sort(Comparator.comparingInt(p -> p.pid));
-
-        for (Process p : processes) {
-            totalWT += p.waitingTime;
-            totalTAT += p.turnaroundTime;
-
-            if (Process.lastAlgorithmUsed == 2) {
-                newModel.addRow(new Object[]{
-                        "P" + p.pid, p.arrivalTime, p.burstTime, p.priority,
-                        p.waitingTime, p.turnaroundTime, String.format("%.2f", p.calculatedDynamicPriority)
-                });
-            } else {
-                newModel.addRow(new Object[]{
-                        "P" + p.pid, p.arrivalTime, p.burstTime, p.priority,
-                        p.waitingTime, p.turnaroundTime
-                });
-            }
-        }
-
-        // Add average row
-        if (!processes.isEmpty()) {
-            if (Process.lastAlgorithmUsed == 2) {
-                newModel.addRow(new Object[]{"Avg", "", "", "",
-                        String.format("%.2f", totalWT / processes.size()),
-                        String.format("%.2f", totalTAT / processes.size()), ""});
-            } else {
-                newModel.addRow(new Object[]{"Avg", "", "", "",
-                        String.format("%.2f", totalWT / processes.size()),
-                        String.format("%.2f", totalTAT / processes.size())});
-            }
-        }
-
+        ResultTableModel newModel = new ResultTableModel(lastResult, model);
 
         table.setModel(newModel);
-        // table.setEnabled(true); // This would make it editable again, which we don't want after calculation
+        ScheduleSummary summary = lastResult.summary();
+        showSummaryLine(String.format(Locale.ROOT,
+                "Throughput: %.3f/unit   CPU Utilization: %.1f%%   Context Switches: %d   Waiting p50/p95/p99: %d / %d / %d",
+                summary.throughput, summary.utilization * 100, summary.contextSwitches,
+                summary.waitingP50, summary.waitingP95, summary.waitingP99));
         calcButton.setEnabled(true); // Keep calculate button enabled to re-run with new data
         styleTable(table);
     }
 
+    // Brings back the input table once a row of the results has been edited, so the stale results are not shown
+    // next to the new values. The next run reuses the checkpoints of the last one.
+    private void showInputTable() {
+        if (table.getModel() instanceof ResultTableModel) {
+            table.setModel(model);
+            styleTable(table);
+            showSummaryLine("Input edited: Run Scheduling re-simulates from the earliest edited arrival time");
+        }
+    }
+
     // Enhanced Gantt chart drawing
     private void drawGanttChart(Graphics g) {
-        if (Process.ganttChart == null || Process.ganttChart.isEmpty()) {
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        if (!ganttRenderer.hasTimeline()) {
             g2d.setColor(TEXT_COLOR);
             g2d.drawString("No scheduling data available", 30, 50);
-            ganttPanel.setPreferredSize(new Dimension(1000, 150)); // Increased height
             return;
         }
+        Rectangle clip = g2d.getClipBounds();
+        ganttTiles.paint(g2d, clip != null ? clip : new Rectangle(0, 0, ganttPanel.getWidth(), ganttPanel.getHeight()));
+    }
 
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-        int x = 40, y = 50, height = 40, width = 40; // Wider blocks for better visibility
-        FontMetrics fm = g2d.getFontMetrics();
-
-        // Draw timeline
-        g2d.setColor(ACCENT_COLOR);
-        g2d.setStroke(new BasicStroke(2)); // Thicker line
-        g2d.drawLine(x, y + height + 15, x + Process.ganttChart.size() * width, y + height + 15);
-        g2d.setStroke(new BasicStroke(1)); // Reset stroke
-
-        // Time font for numbers below the chart
-        Font timeFont = new Font("Segoe UI", Font.PLAIN, 11); // Slightly larger font for numbers
-        g2d.setFont(timeFont);
-        FontMetrics timeFm = g2d.getFontMetrics(timeFont);
-
-
-        for (int i = 0; i < Process.ganttChart.size(); ) {
-            int pid = Process.ganttChart.get(i);
-            int j = i;
-            while (j < Process.ganttChart.size() && Process.ganttChart.get(j) == pid) j++;
-
-            int blockWidth = (j - i) * width;
-
-            // Create gradient for process blocks
-            GradientPaint gp;
-            if (pid == -1) {
-                gp = new GradientPaint(x, y, IDLE_COLOR, x, y + height, IDLE_COLOR.darker());
-            } else {
-                // Generate a distinct color for each process based on PID
-                Color baseColor = Color.getHSBColor(((pid * 0.1618f) + 0.618f) % 1, 0.7f, 0.8f); // Golden ratio conjugate for spread
-                gp = new GradientPaint(x, y, baseColor, x, y + height, baseColor.darker().darker()); // Darker gradient end
-            }
-
-            g2d.setPaint(gp);
-            g2d.fillRoundRect(x, y, blockWidth, height, 8, 8); // Rounded corners
-
-            // Border
-            g2d.setColor(DARK_BACKGROUND.brighter()); // Slightly brighter border
-            g2d.drawRoundRect(x, y, blockWidth, height, 8, 8);
+    // Shows a new schedule in the Gantt panel, one lane per CPU
+    private void showGanttChart(ScheduleResult result) {
+        SegmentSource[] lanes = new SegmentSource[result.cpuCount()];
+        for (int cpu = 0; cpu < lanes.length; cpu++) {
+            lanes[cpu] = result.lane(cpu);
+        }
+        showGanttChart(lanes);
+        if (result.metrics != null) {
+            // Counters of this run and phase timings so far
+            ganttPanel.setToolTipText("<html>Ctrl + mouse wheel to zoom<br>" + result.metrics + "<br>"
+                    + Metrics.phaseSummary().trim().replace(System.lineSeparator(), "<br>") + "</html>");
+        }
+    }
 
-            // Process label (PID or IDLE)
-            g2d.setColor(TEXT_COLOR); // Use TEXT_COLOR for labels
-            String label = pid == -1 ? "IDLE" : "P" + pid;
-            int labelWidth = fm.stringWidth(label); // Using the original fm for process labels
-            g2d.setFont(new Font("Segoe UI", Font.BOLD, 12)); // Slightly smaller font for label
-            g2d.drawString(label, x + (blockWidth - labelWidth) / 2, y + height / 2 + fm.getAscent() / 3);
+    private void showGanttChart(SegmentSource[] lanes) {
+        ganttPanel.setToolTipText("Ctrl + mouse wheel to zoom");
+        ganttRenderer.setTimelines(lanes);
+        ganttTiles.invalidate();
+        // Up to three lanes are visible at once; more scroll vertically
+        int visibleHeight = Math.min(ganttRenderer.preferredHeight(), GanttRenderer.PANEL_HEIGHT + 2 * GanttRenderer.LANE_HEIGHT);
+        ganttScrollPane.setPreferredSize(new Dimension(ganttScrollPane.getWidth(),
+                visibleHeight + ganttScrollPane.getHorizontalScrollBar().getPreferredSize().height));
+        ganttScrollPane.revalidate();
+        updateGanttSize();
+        ganttPanel.repaint();
+    }
 
-            // Time markers
-            g2d.setColor(ACCENT_COLOR);
-            g2d.drawLine(x, y + height + 10, x, y + height + 20); // Vertical tick
-            g2d.setFont(timeFont); // Use the dedicated time font
-            String timeStr = "" + i;
-            int timeStrWidth = timeFm.stringWidth(timeStr);
-            g2d.drawString(timeStr, x - timeStrWidth / 2, y + height + 35); // Adjusted Y position
-
-            x += blockWidth;
-            i = j;
-        }
-
-        // Final time marker
-        g2d.setColor(ACCENT_COLOR);
-        g2d.setFont(timeFont); // Use the dedicated time font
-        String finalTimeStr = "" + Process.ganttChart.size();
-        int finalTimeStrWidth = timeFm.stringWidth(finalTimeStr);
-        g2d.drawString(finalTimeStr,
-                x - finalTimeStrWidth / 2, // Center under the last tick
-                y + height + 35); // Adjusted Y position
-
-        // Set the preferred size for scrolling dynamically
-        int currentScrollPaneWidth = (ganttScrollPane != null) ? ganttScrollPane.getWidth() : 1000;
-        ganttPanel.setPreferredSize(new Dimension(
-                Math.max(currentScrollPaneWidth, Process.ganttChart.size() * width + 80),
-                150 // Adjusted height again to ensure numbers fit
-        ));
-        ganttPanel.revalidate(); // Revalidate to update scroll pane
+    // Sizes the panel for scrolling; called when the schedule, zoom level or window width changes, never while painting
+    private void updateGanttSize() {
+        int viewportWidth = ganttScrollPane.getViewport().getWidth() > 0 ? ganttScrollPane.getViewport().getWidth() : 1000;
+        ganttPanel.setPreferredSize(new Dimension(ganttRenderer.preferredWidth(viewportWidth), ganttRenderer.preferredHeight()));
+        ganttPanel.revalidate();
     }
 
+    // Ctrl + mouse wheel zooms around the pointer; the plain wheel scrolls the chart sideways
+    private void handleGanttWheel(java.awt.event.MouseWheelEvent e) {
+        JScrollBar scrollBar = ganttScrollPane.getHorizontalScrollBar();
+        if (!e.isControlDown()) {
+            scrollBar.setValue(scrollBar.getValue() + e.getWheelRotation() * scrollBar.getUnitIncrement() * 3);
+            return;
+        }
+        if (!ganttRenderer.hasTimeline()) {
+            return;
+        }
+        double anchorTime = ganttRenderer.timeAt(e.getX());
+        int anchorOffset = e.getX() - scrollBar.getValue();
+        ganttRenderer.setScale(ganttRenderer.getScale() * (e.getWheelRotation() < 0 ? 2 : 0.5),
+                ganttScrollPane.getViewport().getWidth());
+        ganttTiles.invalidate();
+        updateGanttSize();
+        ganttPanel.validate();
+        ganttScrollPane.validate();
+        // Keep the time under the pointer in place
+        scrollBar.setValue(ganttRenderer.xOf(anchorTime) - anchorOffset);
+        ganttPanel.repaint();
+    }
 
     // Enhanced table styling
     private void styleTable(JTable table) {
@@ -777,173 +614,5020 @@ public class Main extends JFrame {
     }
 
     public static void main(String[] args) {
+        if (args.length > 0) {
+            // Command-line arguments select the headless batch mode
+            BatchRunner.main(args);
+            return;
+        }
         SwingUtilities.invokeLater(() -> new Main().setVisible(true));
     }
 
-    static class Process {
+    // Scheduling algorithms. Kept free of Swing/AWT references so they can also run headless.
+    static class Scheduler {
 
-        int pid, arrivalTime, burstTime, priority;
-        int remainingTime, completionTime, turnaroundTime, waitingTime;
-        int firstStartTime; // Time when process first starts execution
-        ArrayList<Integer> preemptionMoments; // Times when process was preempted
-        ArrayList<Integer> restartMoments; // Times when process resumed after preemption
-        int timeLastEnteredReadyQueue; // For dynamic priority calculation
-        double calculatedDynamicPriority; // For dynamic priority display
+        static final String[] ALGORITHM_NAMES = {
+                "Priority Preemptive Scheduling",
+                "Priority Non-Preemptive Scheduling",
+                "Dynamic Priority Boost Scheduling",
+                "Round Robin Priority Scheduling"
+        };
 
-        static ArrayList<Integer> ganttChart;
-        static int lastAlgorithmUsed; // 0=preemptive, 1=non-preemptive, 2=dynamic
+        // The policy behind each algorithm index; the weights only matter to Dynamic Priority Boost. Round Robin
+        // uses the default QUANTUM.
+        static SchedulingPolicy policy(int algorithm, double burstWeight, double waitWeight) {
+            switch (algorithm) {
+                case 0:
+                    return new PriorityPreemptivePolicy();
+                case 1:
+                    return new PriorityNonPreemptivePolicy();
+                case 2:
+                    return new DynamicPriorityBoostPolicy(burstWeight, waitWeight);
+                case 3:
+                    return new PriorityRoundRobinPolicy(QUANTUM);
+                default:
+                    throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+            }
+        }
 
-        public Process(int pid, int at, int bt, int pr) {
-            this.pid = pid;
-            this.arrivalTime = at;
-            this.burstTime = bt;
-            this.priority = pr;
-            this.preemptionMoments = new ArrayList<>();
-            this.restartMoments = new ArrayList<>();
-            this.calculatedDynamicPriority = pr; // Initialize with original priority
-            this.remainingTime = bt; // Important for simulation
-            this.timeLastEnteredReadyQueue = at; // Important for initial state
+        // Runs the algorithm with the given index (0=preemptive, 1=non-preemptive, 2=dynamic, 3=round robin) on the workload.
+        // No shared state is touched, so any number of runs can execute concurrently.
+        static ScheduleResult schedule(Workload workload, int algorithm) {
+            return schedule(workload, algorithm, false);
         }
-    }
 
-    // Enhanced comparison dialog
-    private void showComparisonDialog() {
-        if (model == null || model.getRowCount() == 0) {
-            JOptionPane.showMessageDialog(this,
-                    "No process data to compare. Please create a table and enter processes first.",
-                    "Comparison Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
+        // As above with the given Dynamic Priority Boost weights (ignored by the other algorithms)
+        static ScheduleResult schedule(Workload workload, int algorithm, double burstWeight, double waitWeight) {
+            return schedule(workload, algorithm, false, burstWeight, waitWeight);
         }
 
-        // Validate input before running comparison
-        for (int i = 0; i < model.getRowCount(); i++) {
-            try {
-                int at = Integer.parseInt(model.getValueAt(i, 1).toString());
-                int bt = Integer.parseInt(model.getValueAt(i, 2).toString());
-                int pr = Integer.parseInt(model.getValueAt(i, 3).toString());
+        // As above; offHeap keeps the per-process working state outside the Java heap
+        static ScheduleResult schedule(Workload workload, int algorithm, boolean offHeap) {
+            return schedule(workload, algorithm, offHeap, BURST_WEIGHT, WAIT_WEIGHT);
+        }
 
-                if (at < 0 || bt <= 0 || pr < 0) {
-                    JOptionPane.showMessageDialog(this, "Invalid input at row " + (i + 1) + " for comparison. Arrival Time must be >= 0, Burst Time > 0, Priority >= 0.");
-                    return;
-                }
-            } catch (NumberFormatException e) {
-                JOptionPane.showMessageDialog(this, "Invalid input (non-numeric) at row " + (i + 1) + " for comparison. Please enter valid numbers.");
-                return;
-            } catch (NullPointerException e) {
-                JOptionPane.showMessageDialog(this, "Missing input at row " + (i + 1) + " for comparison. Please fill all fields.", "Input Error", JOptionPane.ERROR_MESSAGE);
-                return;
+        static ScheduleResult schedule(Workload workload, int algorithm, boolean offHeap, double burstWeight, double waitWeight) {
+            Metrics.PhaseEvent phase = Metrics.beginPhase(Metrics.SIMULATE);
+            int n = workload.size();
+            SchedulingPolicy policy = policy(algorithm, burstWeight, waitWeight);
+            Collector collector = new Collector(n, policy.hasDynamicPriorities());
+            Timeline timeline = new Timeline();
+            SchedulingEngine engine = new SchedulingEngine(policy, timeline, n, offHeap, collector);
+            for (int i : arrivalOrder(workload)) {
+                engine.submit(workload.pid(i), workload.arrivalTime(i), workload.burstTime(i), workload.priority(i), i);
             }
+            engine.finish();
+            Metrics.endPhase(phase);
+            return collector.toResult(algorithm, workload, timeline, engine.metrics());
         }
 
+        // Per-process results of a single-CPU run, filed under the workload index, which is passed as the process's order
+        static final class Collector implements SchedulingEngine.CompletionListener {
 
-        // Create a professional-looking dialog
-        JDialog dialog = new JDialog(this, "Algorithm Comparison", true); // Modal dialog
-        dialog.setLayout(new BorderLayout());
-        dialog.setSize(650, 550); // Increased size for better visibility
-        dialog.setLocationRelativeTo(this); // Center on parent frame
-
-        // Create content panel
-        JPanel contentPanel = new JPanel(new BorderLayout());
-        contentPanel.setBackground(DARK_BACKGROUND);
-        contentPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
-
-        // Create title label
-        JLabel titleLabel = new JLabel("Algorithm Performance Comparison", JLabel.CENTER);
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 18)); // Larger font
-        titleLabel.setForeground(ACCENT_COLOR);
-        titleLabel.setBorder(new EmptyBorder(0, 0, 20, 0)); // More padding
-        contentPanel.add(titleLabel, BorderLayout.NORTH);
+            private final int[] completionTimes, waitingTimes, turnaroundTimes, firstStartTimes;
+            private final double[] dynamicPriorities;
 
-        // Create results panel
-        JPanel resultsPanel = new JPanel(new GridLayout(3, 1, 15, 15)); // More spacing
-        resultsPanel.setBackground(DARK_BACKGROUND);
+            Collector(int n, boolean dynamic) {
+                completionTimes = new int[n];
+                waitingTimes = new int[n];
+                turnaroundTimes = new int[n];
+                firstStartTimes = new int[n];
+                dynamicPriorities = dynamic ? new double[n] : null;
+            }
 
-        // Run comparisons
-        String[] algoNames = {"Priority Preemptive", "Priority Non-Preemptive", "Dynamic Priority Boost"};
-        // Slightly different shades for comparison boxes
-        Color[] algoColors = {
-                new Color(0, 160, 140), // Teal shade
-                new Color(255, 165, 0),  // Orange
-                new Color(100, 180, 220) // Light Blue
-        };
+            // Starts from the results of an earlier run of a workload with the same number of processes
+            Collector(ScheduleResult previous) {
+                this(previous.workload.size(), previous.hasDynamicPriorities());
+                for (int i = 0; i < completionTimes.length; i++) {
+                    completionTimes[i] = previous.completionTime(i);
+                    waitingTimes[i] = previous.waitingTime(i);
+                    turnaroundTimes[i] = previous.turnaroundTime(i);
+                    firstStartTimes[i] = previous.firstStartTime(i);
+                    if (dynamicPriorities != null) {
+                        dynamicPriorities[i] = previous.dynamicPriority(i);
+                    }
+                }
+            }
 
+            @Override
+            public void completed(ProcessStore store, int slot) {
+                int i = store.order(slot);
+                completionTimes[i] = store.completionTime(slot);
+                waitingTimes[i] = store.waitingTime(slot);
+                turnaroundTimes[i] = store.completionTime(slot) - store.arrivalTime(slot);
+                firstStartTimes[i] = store.firstStartTime(slot);
+                if (dynamicPriorities != null) {
+                    dynamicPriorities[i] = store.dynamicPriority(slot);
+                }
+            }
 
-        for (int algo = 0; algo < 3; algo++) {
-            JPanel algoPanel = new JPanel(new BorderLayout()); // Use BorderLayout for better label/stats arrangement
-            algoPanel.setBackground(MEDIUM_BACKGROUND);
-            algoPanel.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createLineBorder(algoColors[algo], 2), // Thicker border
-                    new EmptyBorder(12, 18, 12, 18) // More padding
-            ));
+            ScheduleResult toResult(int algorithm, Workload workload, Timeline timeline, Metrics metrics) {
+                return new ScheduleResult(algorithm, workload, new Timeline[]{timeline}, 0,
+                        completionTimes, waitingTimes, turnaroundTimes, firstStartTimes, dynamicPriorities, metrics);
+            }
+        }
 
-            JLabel algoLabel = new JLabel(algoNames[algo], JLabel.LEFT); // Align left
-            algoLabel.setFont(new Font("Segoe UI", Font.BOLD, 15));
-            algoLabel.setForeground(algoColors[algo]);
-            algoPanel.add(algoLabel, BorderLayout.NORTH);
+        // Average waiting and turnaround time of a run, as {waiting, turnaround}. Completions go straight into two
+        // running totals, so no per-process results or Gantt chart are kept. The order is arrivalOrder(workload).
+        static double[] averages(Workload workload, int[] order, int algorithm, double burstWeight, double waitWeight) {
+            long[] totals = new long[2];
+            SchedulingEngine engine = new SchedulingEngine(algorithm, burstWeight, waitWeight, null, 64, false,
+                    new SchedulingEngine.CompletionListener() {
+                        @Override
+                        public void completed(ProcessStore store, int slot) {
+                            totals[0] += store.waitingTime(slot);
+                            totals[1] += store.completionTime(slot) - store.arrivalTime(slot);
+                        }
+                    });
+            for (int i : order) {
+                engine.submit(workload.pid(i), workload.arrivalTime(i), workload.burstTime(i), workload.priority(i), i);
+            }
+            engine.finish();
+            int n = Math.max(1, workload.size());
+            return new double[]{(double) totals[0] / n, (double) totals[1] / n};
+        }
 
-            // Create a fresh list of processes for each algorithm run
-            ArrayList<Process> testProcessesForAlgo = new ArrayList<>();
-            for (int i = 0; i < model.getRowCount(); i++) {
-                try {
-                    int at = Integer.parseInt(model.getValueAt(i, 1).toString());
-                    int bt = Integer.parseInt(model.getValueAt(i, 2).toString());
-                    int pr = Integer.parseInt(model.getValueAt(i, 3).toString());
-                    testProcessesForAlgo.add(new Process(i + 1, at, bt, pr));
-                } catch (NumberFormatException | NullPointerException e) {
-                    // This should ideally be caught by the earlier validation, but as a fallback
-                    JOptionPane.showMessageDialog(dialog, "Error parsing process data for comparison.", "Data Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
+        // Detail levels of a run: SUMMARY keeps only running totals, FULL the per-process results and Gantt chart
+        static final int SUMMARY = 0, FULL = 1;
+        static final String[] DETAIL_LEVELS = {"summary", "full"};
+
+        // Summary detail level on one CPU: the same ScheduleSummary as schedule(...).summary(), but completions and
+        // Gantt runs go straight into a SummaryCollector, so memory does not grow with the number of processes
+        // beyond the arrival order. Waiting-time percentiles are within the Histogram's precision.
+        static ScheduleSummary summarize(Workload workload, int algorithm, double burstWeight, double waitWeight) {
+            Metrics.PhaseEvent phase = Metrics.beginPhase(Metrics.SIMULATE);
+            SummaryCollector collector = new SummaryCollector();
+            SchedulingEngine engine = new SchedulingEngine(algorithm, burstWeight, waitWeight, collector, 64, false, collector);
+            for (int i : arrivalOrder(workload)) {
+                engine.submit(workload.pid(i), workload.arrivalTime(i), workload.burstTime(i), workload.priority(i), i);
             }
+            engine.finish();
+            Metrics.endPhase(phase);
+            return new ScheduleSummary(collector, 1);
+        }
 
-            // Run the specific scheduling algorithm
-            switch (algo) {
-                case 0: schedulePriorityPreemptive(testProcessesForAlgo); break;
-                case 1: schedulePriorityNonPreemptive(testProcessesForAlgo); break;
-                case 2: scheduleDynamicPriorityBoost(testProcessesForAlgo); break;
+        // Lets a run started from a background task stop once that task is cancelled
+        static void checkCancelled() {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new java.util.concurrent.CancellationException("Scheduling cancelled");
             }
+        }
 
-            // Calculate total waiting and turnaround times
-            double totalWT = 0, totalTAT = 0;
-            if (!testProcessesForAlgo.isEmpty()) {
-                for (Process p : testProcessesForAlgo) {
-                    totalWT += p.waitingTime;
-                    totalTAT += p.turnaroundTime;
-                }
-                totalWT /= testProcessesForAlgo.size();
-                totalTAT /= testProcessesForAlgo.size();
-            } else {
-                // Handle case of no processes to avoid NaN
-                totalWT = 0;
-                totalTAT = 0;
+        // Workload indices sorted by arrival time, ties kept in list order
+        static int[] arrivalOrder(Workload workload) {
+            int n = workload.size();
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = ((long) workload.arrivalTime(i) << 32) | i;
+            }
+            Arrays.sort(keys);
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = (int) keys[i];
             }
+            return order;
+        }
 
-            // Numbers are now explicitly white using TEXT_COLOR's RGB
-            JLabel statsLabel = new JLabel(String.format(
-                    "<html>Avg Waiting Time: <b style='color: #%06X;'>%.2f</b><br>Avg Turnaround Time: <b style='color: #%06X;'>%.2f</b></html>",
-                    TEXT_COLOR.getRGB() & 0xFFFFFF, totalWT, TEXT_COLOR.getRGB() & 0xFFFFFF, totalTAT
-            ));
-            statsLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            statsLabel.setForeground(TEXT_COLOR); // Still set foreground of JLabel itself to TEXT_COLOR
-            statsLabel.setBorder(new EmptyBorder(5, 0, 0, 0)); // Padding below algorithm name
-            algoPanel.add(statsLabel, BorderLayout.CENTER);
+        // Default weights for dynamic priority calculation; WeightSweep searches for better ones
+        static final double BURST_WEIGHT = 0.5; // Lower value means burst time has more negative impact (higher priority for shorter burst)
+        static final double WAIT_WEIGHT = 2.0; // Higher value means waiting time has more positive impact (higher priority for longer wait)
 
-            resultsPanel.add(algoPanel);
+        // Time slice of Round Robin Priority Scheduling
+        static final int QUANTUM = 4;
+
+        // True if order a comes before order b. Orders are compared by their difference, so a stream that numbers
+        // its processes sequentially stays correct after the counter wraps around.
+        static boolean earlier(int a, int b) {
+            return a - b < 0;
         }
 
-        contentPanel.add(resultsPanel, BorderLayout.CENTER);
-        dialog.add(contentPanel, BorderLayout.CENTER);
+        // Dynamic Priority Boost works in fixed point: weights are rounded to millionths and dynamic priorities are
+        // longs in millionths, so they compare exactly. Floating point would round the same formula differently at
+        // different times, and then no time-independent ready-queue key could order processes as the formula does.
+        static final long WEIGHT_SCALE = 1_000_000;
+        // Largest weight magnitude for which the fixed-point formula cannot overflow a long
+        static final double MAX_WEIGHT = 1000;
+
+        // Weight in millionths
+        static long scaledWeight(double weight) {
+            if (!(Math.abs(weight) <= MAX_WEIGHT)) {
+                throw new IllegalArgumentException("Weight must be between -" + (int) MAX_WEIGHT + " and " + (int) MAX_WEIGHT + ": " + weight);
+            }
+            return Math.round(weight * WEIGHT_SCALE);
+        }
+
+        // Dynamic priority of a ready process at the given time, in millionths, as used by Dynamic Priority Boost
+        // Scheduling. The weights are scaled by scaledWeight.
+        static long dynamicPriority(ProcessStore store, int p, int remainingTime, int currentTime,
+                                    long burstWeight, long waitWeight) {
+            // Time spent waiting since last entered ready queue
+            long waitTimeInQueue = currentTime - store.timeLastEnteredReadyQueue(p);
+            return store.priority(p) * WEIGHT_SCALE + (remainingTime * burstWeight) - (waitTimeInQueue * waitWeight);
+        }
+
+        // True if the waiting process would be selected over the running one at the given time
+        static boolean outranks(ProcessStore store, int waiting, int running, int runningRemaining, int currentTime,
+                                long burstWeight, long waitWeight) {
+            long waitingPriority = dynamicPriority(store, waiting, store.remainingTime(waiting), currentTime, burstWeight, waitWeight);
+            long runningPriority = dynamicPriority(store, running, runningRemaining, currentTime, burstWeight, waitWeight);
+            if (waitingPriority != runningPriority) {
+                return waitingPriority < runningPriority;
+            }
+            // Tie-breaking: FCFS, then position in the list
+            if (store.arrivalTime(waiting) != store.arrivalTime(running)) {
+                return store.arrivalTime(waiting) < store.arrivalTime(running);
+            }
+            return earlier(store.order(waiting), store.order(running));
+        }
+
+        // First time in (from, to) at which the waiting process overtakes the running one, or 'to' if it never does.
+        // Only called when burstWeight is negative, where the running process loses ground monotonically.
+        static int nextOvertake(ProcessStore store, int waiting, int running, int from, int to,
+                                long burstWeight, long waitWeight) {
+            int lo = from + 1, hi = to;
+            while (lo < hi) {
+                int mid = lo + (hi - lo) / 2;
+                if (outranks(store, waiting, running, store.remainingTime(running) - (mid - from), mid, burstWeight, waitWeight)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+    }
+
+    // Single-CPU run that keeps a frozen copy of the engine every few submissions. After rows of the table are
+    // edited, rerun resumes from the last copy taken before the earliest arrival time the edit touches and simulates
+    // only the rest, continuing the copied Gantt chart and per-process results. Nothing before that time can depend
+    // on the edited rows, so the result is the same as a full run of the edited workload.
+    static final class CheckpointedRun {
+
+        static final int CHECKPOINTS = 16; // Per run; each copy holds only the processes active at that moment
+
+        // Engine state after the first 'submitted' processes in arrival order were submitted
+        private static final class Checkpoint {
+            final int submitted;
+            final int lastArrival; // Arrival time of the last of them
+            final SchedulingEngine engine; // Never run, only copied
+            final int segments, lastEnd; // Gantt chart size and end of its last segment
+
+            Checkpoint(int submitted, int lastArrival, SchedulingEngine engine, int segments, int lastEnd) {
+                this.submitted = submitted;
+                this.lastArrival = lastArrival;
+                this.engine = engine;
+                this.segments = segments;
+                this.lastEnd = lastEnd;
+            }
+        }
+
+        final ScheduleResult result;
+        private final double burstWeight, waitWeight;
+        private final int[] order; // Scheduler.arrivalOrder of the workload
+        private final Checkpoint[] checkpoints;
+        private final int reused;
+
+        private CheckpointedRun(ScheduleResult result, double burstWeight, double waitWeight, int[] order,
+                                Checkpoint[] checkpoints, int reused) {
+            this.result = result;
+            this.burstWeight = burstWeight;
+            this.waitWeight = waitWeight;
+            this.order = order;
+            this.checkpoints = checkpoints;
+            this.reused = reused;
+        }
+
+        // Full run from time 0
+        static CheckpointedRun run(Workload workload, int algorithm, double burstWeight, double waitWeight) {
+            return simulate(workload, algorithm, burstWeight, waitWeight, null, 0);
+        }
+
+        // True if a run with these weights would give the same schedule (only some policies use them)
+        boolean hasWeights(double burstWeight, double waitWeight) {
+            return Arrays.equals(Scheduler.policy(result.algorithm, burstWeight, waitWeight).parameters(),
+                    Scheduler.policy(result.algorithm, this.burstWeight, this.waitWeight).parameters());
+        }
+
+        // Schedules an edited version of this run's workload with the same algorithm and weights. A workload with
+        // a different number of rows is scheduled from time 0.
+        CheckpointedRun rerun(Workload edited) {
+            int changeTime = result.workload.firstChangeTime(edited);
+            int kept = checkpoints.length;
+            while (kept > 0 && checkpoints[kept - 1].lastArrival >= changeTime) {
+                kept--;
+            }
+            return simulate(edited, result.algorithm, burstWeight, waitWeight, this, kept);
+        }
+
+        // Processes whose part of the schedule was taken over from the previous run instead of simulated again
+        int reusedProcesses() {
+            return reused;
+        }
+
+        // Runs the workload, resuming from the previous run's checkpoint 'kept - 1' when kept > 0
+        private static CheckpointedRun simulate(Workload workload, int algorithm, double burstWeight, double waitWeight,
+                                                CheckpointedRun previous, int kept) {
+            Metrics.PhaseEvent phase = Metrics.beginPhase(Metrics.SIMULATE);
+            int n = workload.size();
+            ArrayList<Checkpoint> checkpoints = new ArrayList<>();
+            Scheduler.Collector collector;
+            Timeline timeline;
+            SchedulingEngine engine;
+            int[] order;
+            int from = 0;
+            if (kept > 0) {
+                Checkpoint start = previous.checkpoints[kept - 1];
+                checkpoints.addAll(Arrays.asList(previous.checkpoints).subList(0, kept));
+                collector = new Scheduler.Collector(previous.result);
+                timeline = previous.result.timeline.prefix(start.segments, start.lastEnd);
+                engine = new SchedulingEngine(start.engine, timeline, collector);
+                from = start.submitted;
+                order = resumedOrder(workload, previous.order, from);
+            } else {
+                SchedulingPolicy policy = Scheduler.policy(algorithm, burstWeight, waitWeight);
+                collector = new Scheduler.Collector(n, policy.hasDynamicPriorities());
+                timeline = new Timeline();
+                engine = new SchedulingEngine(policy, timeline, n, false, collector);
+                order = Scheduler.arrivalOrder(workload);
+            }
+            int interval = Math.max(1, (n + CHECKPOINTS - 1) / CHECKPOINTS);
+            for (int k = from; k < n; k++) {
+                if (k > from && k % interval == 0) {
+                    checkpoints.add(new Checkpoint(k, workload.arrivalTime(order[k - 1]),
+                            new SchedulingEngine(engine, null, null), timeline.size(), timeline.length()));
+                }
+                int i = order[k];
+                engine.submit(workload.pid(i), workload.arrivalTime(i), workload.burstTime(i), workload.priority(i), i);
+            }
+            engine.finish();
+            Metrics.endPhase(phase);
+            return new CheckpointedRun(collector.toResult(algorithm, workload, timeline, engine.metrics()),
+                    burstWeight, waitWeight, order, checkpoints.toArray(new Checkpoint[0]), from);
+        }
+
+        // Arrival order of the edited workload. The first 'from' processes are unchanged, so only the rest is sorted.
+        private static int[] resumedOrder(Workload workload, int[] previousOrder, int from) {
+            int[] order = previousOrder.clone();
+            long[] keys = new long[order.length - from];
+            for (int k = from; k < order.length; k++) {
+                keys[k - from] = ((long) workload.arrivalTime(order[k]) << 32) | order[k];
+            }
+            Arrays.sort(keys);
+            for (int k = from; k < order.length; k++) {
+                order[k] = (int) keys[k - from];
+            }
+            return order;
+        }
+    }
+
+    // Headless entry point: runs workloads from CSV files without touching Swing/AWT.
+    // Usage: java -cp <classes> main.Main$BatchRunner <workload.csv> [--algorithm preemptive|non-preemptive|dynamic|round-robin|all] [--output <file>] [--stream]
+    //        [--cpus <k>] [--placement least-loaded|round-robin] [--stealing idle|none] [--burst-weight <w>] [--wait-weight <w>]
+    //        [--trace <file>] [--detail summary|full]
+    static class BatchRunner {
+
+        static final String[] ALGORITHM_IDS = {"preemptive", "non-preemptive", "dynamic", "round-robin"};
+        static final String RESULT_HEADER = "algorithm,pid,arrival,burst,priority,completion,waiting,turnaround,dynamic_priority";
+
+        public static void main(String[] args) {
+            String inputFile = null, outputFile = null, traceFile = null, algorithm = "all";
+            boolean stream = false, stealing = true;
+            int cpus = 1, placement = MultiCoreScheduler.LEAST_LOADED, detail = Scheduler.FULL;
+            double burstWeight = Scheduler.BURST_WEIGHT, waitWeight = Scheduler.WAIT_WEIGHT;
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--stream")) {
+                    stream = true;
+                } else if ((args[i].equals("--burst-weight") || args[i].equals("--wait-weight")) && i + 1 < args.length) {
+                    double weight = 0;
+                    try {
+                        weight = Double.parseDouble(args[i + 1]);
+                    } catch (NumberFormatException e) {
+                        usage("Invalid weight: " + args[i + 1]);
+                    }
+                    if (!(Math.abs(weight) <= Scheduler.MAX_WEIGHT)) {
+                        usage("Invalid weight: " + args[i + 1]);
+                    }
+                    if (args[i++].equals("--burst-weight")) {
+                        burstWeight = weight;
+                    } else {
+                        waitWeight = weight;
+                    }
+                } else if (args[i].equals("--cpus") && i + 1 < args.length) {
+                    try {
+                        cpus = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        usage("Invalid CPU count: " + args[i]);
+                    }
+                    if (cpus < 1) {
+                        usage("Invalid CPU count: " + args[i]);
+                    }
+                } else if (args[i].equals("--placement") && i + 1 < args.length) {
+                    placement = Arrays.asList(MultiCoreScheduler.PLACEMENTS).indexOf(args[++i]);
+                    if (placement < 0) {
+                        usage("Unknown placement: " + args[i]);
+                    }
+                } else if (args[i].equals("--stealing") && i + 1 < args.length) {
+                    String value = args[++i];
+                    if (!value.equals("idle") && !value.equals("none")) {
+                        usage("Unknown stealing policy: " + value);
+                    }
+                    stealing = value.equals("idle");
+                } else if (args[i].equals("--algorithm") && i + 1 < args.length) {
+                    algorithm = args[++i];
+                } else if (args[i].equals("--output") && i + 1 < args.length) {
+                    outputFile = args[++i];
+                } else if (args[i].equals("--trace") && i + 1 < args.length) {
+                    traceFile = args[++i];
+                } else if (args[i].equals("--detail") && i + 1 < args.length) {
+                    detail = Arrays.asList(Scheduler.DETAIL_LEVELS).indexOf(args[++i]);
+                    if (detail < 0) {
+                        usage("Unknown detail level: " + args[i]);
+                    }
+                } else if ((!args[i].startsWith("-") || args[i].equals("-")) && inputFile == null) {
+                    inputFile = args[i];
+                } else {
+                    usage("Unknown argument: " + args[i]);
+                }
+            }
+            if (inputFile == null) {
+                usage("Missing workload file");
+            }
+            if (stream && cpus > 1) {
+                usage("--stream simulates a single CPU");
+            }
+            if (stream && traceFile != null) {
+                usage("--trace needs the whole schedule and cannot be combined with --stream");
+            }
+            if (detail == Scheduler.SUMMARY && (stream || traceFile != null)) {
+                usage("--detail summary cannot be combined with --stream or --trace");
+            }
+
+            int[] algorithms;
+            if (algorithm.equals("all")) {
+                algorithms = new int[ALGORITHM_IDS.length];
+                for (int a = 0; a < algorithms.length; a++) {
+                    algorithms[a] = a;
+                }
+            } else {
+                int index = Arrays.asList(ALGORITHM_IDS).indexOf(algorithm);
+                if (index < 0) {
+                    usage("Unknown algorithm: " + algorithm);
+                }
+                algorithms = new int[]{index};
+            }
+
+            try {
+                java.io.OutputStream out = outputFile == null ? System.out : new java.io.FileOutputStream(outputFile);
+                java.io.PrintWriter writer = new java.io.PrintWriter(new java.io.BufferedWriter(
+                        new java.io.OutputStreamWriter(out, java.nio.charset.StandardCharsets.UTF_8), 1 << 16));
+                if (detail == Scheduler.SUMMARY) {
+                    // One line per algorithm
+                    writer.println("algorithm,processes,average_waiting,average_turnaround,average_response,throughput,"
+                            + "utilization,context_switches,waiting_p50,waiting_p95,waiting_p99,waiting_max");
+                    Workload workload = readWorkload(new java.io.File(inputFile));
+                    for (int algo : algorithms) {
+                        // Several CPUs have no summary-only simulation; their full result is summarized instead
+                        ScheduleSummary summary = cpus == 1 ? Scheduler.summarize(workload, algo, burstWeight, waitWeight)
+                                : MultiCoreScheduler.schedule(workload, algo, cpus, placement, stealing, burstWeight, waitWeight).summary();
+                        writeSummary(writer, ALGORITHM_IDS[algo], summary);
+                    }
+                } else if (stream) {
+                    writer.println(RESULT_HEADER);
+                    // "-" reads the stream from standard input
+                    java.io.InputStream in = inputFile.equals("-") ? System.in : new java.io.FileInputStream(inputFile);
+                    try (java.io.BufferedReader reader = new java.io.BufferedReader(
+                            new java.io.InputStreamReader(in, java.nio.charset.StandardCharsets.UTF_8), 1 << 16)) {
+                        streamWorkload(reader, writer, algorithms, burstWeight, waitWeight);
+                    }
+                } else {
+                    writer.println(RESULT_HEADER);
+                    Workload workload = readWorkload(new java.io.File(inputFile));
+                    for (int algo : algorithms) {
+                        ScheduleResult result = cpus == 1 ? Scheduler.schedule(workload, algo, burstWeight, waitWeight)
+                                : MultiCoreScheduler.schedule(workload, algo, cpus, placement, stealing, burstWeight, waitWeight);
+                        writeResults(writer, ALGORITHM_IDS[algo], result);
+                        writer.println("# " + ALGORITHM_IDS[algo] + " summary: " + result.summary());
+                        if (cpus > 1) {
+                            writeCpuSummary(writer, ALGORITHM_IDS[algo], result);
+                        }
+                        if (result.metrics != null) {
+                            writer.println("# " + ALGORITHM_IDS[algo] + " metrics: " + result.metrics);
+                        }
+                        if (traceFile != null) {
+                            TraceFile.write(result, traceFile(traceFile, ALGORITHM_IDS[algo], algorithms.length));
+                        }
+                    }
+                }
+                writer.flush();
+                if (Metrics.ENABLED) {
+                    System.err.print(Metrics.phaseSummary());
+                }
+                if (outputFile != null) {
+                    writer.close();
+                }
+            } catch (IllegalArgumentException | java.io.IOException e) {
+                System.err.println("Error: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+
+        // The trace path as given for a single algorithm; with several, the algorithm goes before the extension
+        static java.io.File traceFile(String path, String algorithm, int algorithmCount) {
+            if (algorithmCount == 1) {
+                return new java.io.File(path);
+            }
+            int dot = path.lastIndexOf('.');
+            return dot > path.lastIndexOf(java.io.File.separatorChar)
+                    ? new java.io.File(path.substring(0, dot) + "-" + algorithm + path.substring(dot))
+                    : new java.io.File(path + "-" + algorithm);
+        }
+
+        private static void usage(String message) {
+            System.err.println(message);
+            System.err.println("Usage: main.Main$BatchRunner <workload.csv> [--algorithm preemptive|non-preemptive|dynamic|round-robin|all] [--output <file>] [--stream]");
+            System.err.println("Workload lines: pid,arrival,burst,priority (header and # comment lines are skipped)");
+            System.err.println("--stream schedules lines as they are read (in arrival order; \"-\" reads standard input)");
+            System.err.println("and writes each process as soon as it completes");
+            System.err.println("--cpus simulates k CPUs with per-CPU ready queues; idle CPUs steal waiting work unless --stealing none");
+            System.err.println("--burst-weight and --wait-weight set the Dynamic Priority Boost weights (see main.Main$WeightSweep)");
+            System.err.println("--trace writes a binary trace for the GUI (one file per algorithm, named after it when there are several)");
+            System.err.println("--detail summary writes one line of averages and percentiles per algorithm instead of every process");
+            System.exit(2);
+        }
+
+        // Reads "pid,arrival,burst,priority" lines. Same validation rules as the process table.
+        static Workload readWorkload(java.io.File file) throws java.io.IOException {
+            Metrics.PhaseEvent phase = Metrics.beginPhase(Metrics.PARSE);
+            int count = 0;
+            int[] pids = new int[64], arrivalTimes = new int[64], burstTimes = new int[64], priorities = new int[64];
+            try (java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.InputStreamReader(
+                    new java.io.FileInputStream(file), java.nio.charset.StandardCharsets.UTF_8), 1 << 16)) {
+                String line;
+                int lineNumber = 0;
+                int[] fields = new int[4];
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (!parseLine(line, lineNumber, fields)) {
+                        continue;
+                    }
+                    if (count == pids.length) {
+                        pids = Arrays.copyOf(pids, count * 2);
+                        arrivalTimes = Arrays.copyOf(arrivalTimes, count * 2);
+                        burstTimes = Arrays.copyOf(burstTimes, count * 2);
+                        priorities = Arrays.copyOf(priorities, count * 2);
+                    }
+                    pids[count] = fields[0];
+                    arrivalTimes[count] = fields[1];
+                    burstTimes[count] = fields[2];
+                    priorities[count] = fields[3];
+                    count++;
+                }
+            }
+            Metrics.endPhase(phase);
+            return new Workload(Arrays.copyOf(pids, count), Arrays.copyOf(arrivalTimes, count),
+                    Arrays.copyOf(burstTimes, count), Arrays.copyOf(priorities, count));
+        }
+
+        // Parses one workload line into fields (pid, arrival, burst, priority).
+        // Returns false for lines to skip: blank lines, # comments and a header on the first line.
+        static boolean parseLine(String line, int lineNumber, int[] fields) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                return false;
+            }
+            int start = 0;
+            try {
+                for (int f = 0; f < 4; f++) {
+                    int comma = f < 3 ? line.indexOf(',', start) : line.length();
+                    if (comma < 0) {
+                        throw new IllegalArgumentException("Expected 4 fields at line " + lineNumber);
+                    }
+                    String field = line.substring(start, comma).trim();
+                    if (f == 0 && (field.startsWith("P") || field.startsWith("p"))) {
+                        field = field.substring(1);
+                    }
+                    fields[f] = Integer.parseInt(field);
+                    start = comma + 1;
+                }
+            } catch (NumberFormatException e) {
+                if (lineNumber == 1) {
+                    return false; // Header line
+                }
+                throw new IllegalArgumentException("Invalid input (non-numeric) at line " + lineNumber);
+            }
+            if (fields[1] < 0 || fields[2] <= 0 || fields[3] < 0) {
+                throw new IllegalArgumentException("Invalid input at line " + lineNumber
+                        + ". Arrival Time must be >= 0, Burst Time > 0, Priority >= 0.");
+            }
+            return true;
+        }
+
+        // Per-CPU utilization and the load balance, as # comment lines so the output still reads back as a workload
+        static void writeSummary(java.io.PrintWriter writer, String algorithm, ScheduleSummary summary) {
+            writer.printf(Locale.ROOT, "%s,%d,%.4f,%.4f,%.4f,%.6f,%.6f,%d,%d,%d,%d,%d%n", algorithm, summary.processes,
+                    summary.averageWaitingTime, summary.averageTurnaroundTime, summary.averageResponseTime,
+                    summary.throughput, summary.utilization, summary.contextSwitches,
+                    summary.waitingP50, summary.waitingP95, summary.waitingP99, summary.maxWaitingTime);
+        }
+
+        static void writeCpuSummary(java.io.PrintWriter writer, String algorithm, ScheduleResult result) {
+            for (int cpu = 0; cpu < result.cpuCount(); cpu++) {
+                writer.println(String.format(Locale.ROOT, "# %s cpu %d: busy %d, utilization %.3f",
+                        algorithm, cpu, result.busyTime(cpu), result.utilization(cpu)));
+            }
+            writer.println(String.format(Locale.ROOT, "# %s: makespan %d, utilization %.3f, load imbalance %.3f, migrations %d",
+                    algorithm, result.makespan(), result.utilization(), result.loadImbalance(), result.migrations()));
+        }
+
+        // Feeds each line to the schedulers as soon as it is read and writes every process the moment it completes.
+        // Memory depends on how many processes are in the system at once, not on the length of the input.
+        // Averages and waiting-time percentiles are kept incrementally and reported when the input ends.
+        static void streamWorkload(java.io.BufferedReader reader, java.io.PrintWriter writer, int[] algorithms,
+                                   double burstWeight, double waitWeight) throws java.io.IOException {
+            Metrics.PhaseEvent phase = Metrics.beginPhase(Metrics.SIMULATE); // Reading and scheduling interleave
+            SchedulingEngine[] engines = new SchedulingEngine[algorithms.length];
+            StreamStats[] stats = new StreamStats[algorithms.length];
+            for (int a = 0; a < algorithms.length; a++) {
+                String algorithm = ALGORITHM_IDS[algorithms[a]];
+                SchedulingPolicy policy = Scheduler.policy(algorithms[a], burstWeight, waitWeight);
+                boolean dynamic = policy.hasDynamicPriorities();
+                StreamStats algorithmStats = new StreamStats();
+                StringBuilder line = new StringBuilder(96);
+                stats[a] = algorithmStats;
+                engines[a] = new SchedulingEngine(policy, null, 64, false, new SchedulingEngine.CompletionListener() {
+                    @Override
+                    public void completed(ProcessStore store, int slot) {
+                        algorithmStats.completed(store, slot);
+                        line.setLength(0);
+                        line.append(algorithm).append(',').append(store.pid(slot)).append(',').append(store.arrivalTime(slot)).append(',')
+                                .append(store.burstTime(slot)).append(',').append(store.priority(slot)).append(',')
+                                .append(store.completionTime(slot)).append(',').append(store.waitingTime(slot)).append(',')
+                                .append(store.completionTime(slot) - store.arrivalTime(slot)).append(',');
+                        if (dynamic) {
+                            line.append(String.format(Locale.ROOT, "%.2f", store.dynamicPriority(slot)));
+                        }
+                        writer.println(line);
+                    }
+                });
+            }
+
+            String line;
+            int lineNumber = 0, order = 0, lastArrival = 0;
+            int[] fields = new int[4];
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (parseLine(line, lineNumber, fields)) {
+                    if (fields[1] < lastArrival) {
+                        throw new IllegalArgumentException("Arrival time out of order at line " + lineNumber);
+                    }
+                    lastArrival = fields[1];
+                    for (SchedulingEngine engine : engines) {
+                        engine.submit(fields[0], fields[1], fields[2], fields[3], order);
+                    }
+                    order++;
+                }
+                if (!reader.ready()) {
+                    writer.flush(); // Show completions before waiting for more input
+                }
+            }
+            for (int a = 0; a < algorithms.length; a++) {
+                engines[a].finish();
+                if (stats[a].count() > 0) {
+                    writer.println(String.format(Locale.ROOT, "%s,Avg,,,,,%.2f,%.2f,", ALGORITHM_IDS[algorithms[a]],
+                            stats[a].averageWaitingTime(), stats[a].averageTurnaroundTime()));
+                }
+                // Percentiles go to standard error so the output stays in the batch CSV layout
+                Histogram waiting = stats[a].waitingTimes();
+                System.err.println(String.format(Locale.ROOT, "%s: %d processes, waiting p50=%d p95=%d p99=%d max=%d",
+                        ALGORITHM_IDS[algorithms[a]], waiting.count(), waiting.percentile(50), waiting.percentile(95),
+                        waiting.percentile(99), waiting.max()));
+                if (engines[a].metrics() != null) {
+                    System.err.println(ALGORITHM_IDS[algorithms[a]] + " metrics: " + engines[a].metrics());
+                }
+            }
+            Metrics.endPhase(phase);
+        }
+
+        // One line per process followed by an Avg line, in the same layout as the results table
+        static void writeResults(java.io.PrintWriter writer, String algorithm, ScheduleResult result) {
+            Workload workload = result.workload;
+            StringBuilder line = new StringBuilder(96);
+            for (int i = 0; i < workload.size(); i++) {
+                line.setLength(0);
+                line.append(algorithm).append(',').append(workload.pid(i)).append(',').append(workload.arrivalTime(i)).append(',')
+                        .append(workload.burstTime(i)).append(',').append(workload.priority(i)).append(',')
+                        .append(result.completionTime(i)).append(',').append(result.waitingTime(i)).append(',')
+                        .append(result.turnaroundTime(i)).append(',');
+                if (result.hasDynamicPriorities()) {
+                    line.append(String.format(Locale.ROOT, "%.2f", result.dynamicPriority(i)));
+                }
+                writer.println(line);
+            }
+            if (workload.size() > 0) {
+                writer.println(String.format(Locale.ROOT, "%s,Avg,,,,,%.2f,%.2f,", algorithm,
+                        result.averageWaitingTime(), result.averageTurnaroundTime()));
+            }
+        }
+    }
+
+    // Simulates k CPUs, each with its own ready queue, under a SchedulingPolicy. Arriving processes are
+    // placed on a CPU (the least loaded, or round-robin) and, when stealing is on, a CPU that runs out of work takes
+    // the best waiting process from the CPU with the longest queue. Every CPU gets its own Gantt lane. Preemptions
+    // are logged as in SchedulingEngine and waiting time comes from the policy, so on one CPU both give the same
+    // results. A global event loop visits only arrivals, completions and the policy's run limits, so the cost grows
+    // with the number of events rather than with k.
+    static class MultiCoreScheduler {
+
+        static final String[] PLACEMENTS = {"least-loaded", "round-robin"};
+        static final int LEAST_LOADED = 0, ROUND_ROBIN = 1;
+
+        static ScheduleResult schedule(Workload workload, int algorithm, int cpus, int placement, boolean stealing) {
+            return schedule(workload, algorithm, cpus, placement, stealing, Scheduler.BURST_WEIGHT, Scheduler.WAIT_WEIGHT);
+        }
+
+        // As above with the given Dynamic Priority Boost weights
+        static ScheduleResult schedule(Workload workload, int algorithm, int cpus, int placement, boolean stealing,
+                                       double burstWeight, double waitWeight) {
+            if (cpus < 1) {
+                throw new IllegalArgumentException("At least one CPU is needed: " + cpus);
+            }
+            Metrics.PhaseEvent phase = Metrics.beginPhase(Metrics.SIMULATE);
+            ScheduleResult result = new MultiCoreScheduler(workload, algorithm, cpus, placement, stealing, burstWeight, waitWeight).run();
+            Metrics.endPhase(phase);
+            return result;
+        }
+
+        private final Workload workload;
+        private final SchedulingPolicy policy;
+        private final int algorithm, cpus, placement;
+        private final boolean stealing, preemptive;
+        private final ProcessStore store;
+        private final PreemptionLog preemptionLog = new PreemptionLog();
+        private final ReadyQueue[] queues;
+        private final Timeline[] lanes;
+        private final int[] running, runStart, runEnd;
+        private final int[] completionTimes, waitingTimes, turnaroundTimes, firstStartTimes;
+        private final double[] dynamicPriorities;
+        private long[] events = new long[64]; // Pending run ends as (time << 32 | cpu); stale entries are skipped
+        private int eventCount;
+        private int[] dirty; // CPUs to reconsider at the current event time
+        private boolean[] isDirty;
+        private int dirtyCount, idleCpus, queued, nextCpu, migrations;
+        private final Metrics metrics = Metrics.ENABLED ? new Metrics() : null;
+        private int preempted = -1; // Instrumentation only: slot displaced by the next start()
+
+        private MultiCoreScheduler(Workload workload, int algorithm, int cpus, int placement, boolean stealing,
+                                   double burstWeight, double waitWeight) {
+            this.workload = workload;
+            this.policy = Scheduler.policy(algorithm, burstWeight, waitWeight);
+            this.preemptive = policy.preemptive();
+            this.algorithm = algorithm;
+            this.cpus = cpus;
+            this.placement = placement;
+            this.stealing = stealing;
+            int n = workload.size();
+            store = new ProcessStore(n, false);
+            queues = new ReadyQueue[cpus];
+            lanes = new Timeline[cpus];
+            for (int c = 0; c < cpus; c++) {
+                queues[c] = policy.readyQueue(store, 16);
+                lanes[c] = new Timeline();
+            }
+            running = new int[cpus];
+            Arrays.fill(running, -1);
+            runStart = new int[cpus];
+            runEnd = new int[cpus];
+            dirty = new int[cpus];
+            isDirty = new boolean[cpus];
+            idleCpus = cpus;
+            completionTimes = new int[n];
+            waitingTimes = new int[n];
+            turnaroundTimes = new int[n];
+            firstStartTimes = new int[n];
+            dynamicPriorities = policy.hasDynamicPriorities() ? new double[n] : null;
+        }
+
+        private ScheduleResult run() {
+            int n = workload.size();
+            int[] byArrival = Scheduler.arrivalOrder(workload);
+            int nextIndex = 0, completed = 0, time = 0;
+
+            while (completed < n) {
+                Scheduler.checkCancelled();
+                int nextArrival = nextIndex < n ? workload.arrivalTime(byArrival[nextIndex]) : Integer.MAX_VALUE;
+                time = Math.max(time, Math.min(nextArrival, eventCount > 0 ? (int) (events[0] >>> 32) : Integer.MAX_VALUE));
+
+                // Run ends due now: account the time run and complete what finished
+                while (eventCount > 0 && (int) (events[0] >>> 32) <= time) {
+                    int cpu = (int) pollEvent();
+                    if (running[cpu] != -1 && runEnd[cpu] <= time) {
+                        completed += settle(cpu, time);
+                        markDirty(cpu);
+                    }
+                }
+
+                // Place arrivals
+                while (nextIndex < n && workload.arrivalTime(byArrival[nextIndex]) <= time) {
+                    int i = byArrival[nextIndex++];
+                    int slot = store.allocate(workload.pid(i), workload.arrivalTime(i), workload.burstTime(i), workload.priority(i), i);
+                    policy.enqueued(store, slot, time);
+                    int cpu = place();
+                    queues[cpu].add(slot);
+                    queued++;
+                    markDirty(cpu);
+                }
+
+                long selectStart = Metrics.ENABLED ? System.nanoTime() : 0;
+                for (int d = 0; d < dirtyCount; d++) {
+                    int cpu = dirty[d];
+                    isDirty[cpu] = false;
+                    completed += settle(cpu, time);
+                    decide(cpu, time);
+                }
+                dirtyCount = 0;
+
+                // Idle CPUs steal the best waiting process from the longest queue
+                if (stealing && idleCpus > 0 && queued > 0) {
+                    for (int cpu = 0; cpu < cpus && idleCpus > 0 && queued > 0; cpu++) {
+                        if (running[cpu] != -1 || !queues[cpu].isEmpty()) {
+                            continue;
+                        }
+                        int victim = -1;
+                        for (int c = 0; c < cpus; c++) {
+                            if (!queues[c].isEmpty() && (victim == -1 || queues[c].size() > queues[victim].size())) {
+                                victim = c;
+                            }
+                        }
+                        queues[cpu].add(queues[victim].poll());
+                        migrations++;
+                        if (running[victim] != -1) {
+                            // Its run limit was planned against the process just taken. Runs ending now were
+                            // settled above, so this only brings the remaining time up to date.
+                            settle(victim, time);
+                            scheduleRunEnd(victim, time, false);
+                        }
+                        decide(cpu, time);
+                    }
+                }
+                if (Metrics.ENABLED) {
+                    metrics.selectNanos += System.nanoTime() - selectStart;
+                }
+            }
+
+            // Pad every lane with idle time up to the end of the schedule
+            int makespan = 0;
+            for (Timeline lane : lanes) {
+                makespan = Math.max(makespan, lane.length());
+            }
+            for (Timeline lane : lanes) {
+                if (Metrics.ENABLED) {
+                    metrics.idleTime += makespan - lane.length(); // Idle gaps between runs were counted by start()
+                }
+                lane.add(-1, lane.length(), makespan);
+            }
+            return new ScheduleResult(algorithm, workload, lanes, migrations,
+                    completionTimes, waitingTimes, turnaroundTimes, firstStartTimes, dynamicPriorities, metrics);
+        }
+
+        private int place() {
+            if (placement == ROUND_ROBIN) {
+                int cpu = nextCpu;
+                nextCpu = (nextCpu + 1) % cpus;
+                return cpu;
+            }
+            int best = 0, bestLoad = Integer.MAX_VALUE;
+            for (int c = 0; c < cpus; c++) {
+                int load = queues[c].size() + (running[c] != -1 ? 1 : 0);
+                if (load < bestLoad) {
+                    best = c;
+                    bestLoad = load;
+                    if (load == 0) {
+                        break;
+                    }
+                }
+            }
+            return best;
+        }
+
+        // Accounts the running process up to the given time; returns 1 if it completed
+        private int settle(int cpu, int time) {
+            int p = running[cpu];
+            if (p == -1 || time <= runStart[cpu]) {
+                return 0;
+            }
+            lanes[cpu].add(store.pid(p), runStart[cpu], time);
+            int remaining = store.remainingTime(p) - (time - runStart[cpu]);
+            store.setRemainingTime(p, remaining);
+            runStart[cpu] = time;
+            if (remaining > 0) {
+                return 0;
+            }
+            int i = store.order(p);
+            completionTimes[i] = time;
+            turnaroundTimes[i] = time - store.arrivalTime(p);
+            firstStartTimes[i] = store.firstStartTime(p);
+            store.setCompletionTime(p, time);
+            policy.completed(store, p, time);
+            waitingTimes[i] = policy.waitingTime(store, p);
+            preemptionLog.discard(store, p);
+            if (dynamicPriorities != null) {
+                dynamicPriorities[i] = store.dynamicPriority(p);
+            }
+            store.free(p);
+            running[cpu] = -1;
+            idleCpus++;
+            return 1;
+        }
+
+        // Picks what the CPU runs from now on, preempting the running process where the policy allows it
+        private void decide(int cpu, int time) {
+            ReadyQueue queue = queues[cpu];
+            int current = running[cpu];
+            if (!queue.isEmpty()) {
+                if (current == -1) {
+                    start(cpu, queue.poll(), time);
+                    return;
+                }
+                if (preemptive && policy.preempts(store, queue.peek(), current, time)) {
+                    preemptionLog.open(store, current, time);
+                    policy.enqueued(store, current, time); // Process goes back to ready queue
+                    int next = queue.replaceHead(current);
+                    if (store.firstStartTime(next) != -1) {
+                        preemptionLog.close(store, next, time); // This process is restarting
+                    }
+                    queued++;
+                    running[cpu] = -1;
+                    idleCpus++;
+                    if (Metrics.ENABLED) {
+                        preempted = current;
+                    }
+                    start(cpu, next, time);
+                    return;
+                }
+            }
+            if (current != -1) {
+                scheduleRunEnd(cpu, time, false); // The best waiting process may have changed
+            }
+        }
+
+        private void start(int cpu, int p, int time) {
+            queued--;
+            idleCpus--;
+            if (Metrics.ENABLED) {
+                Timeline lane = lanes[cpu];
+                metrics.idleTime += time - lane.length();
+                // A process preempted and picked again in the same decision keeps the CPU
+                if (p != preempted) {
+                    metrics.dispatched(store.pid(p), time, queues[cpu].size(), preempted != -1 ? store.pid(preempted) : -1,
+                            lane.size() > 0 && lane.length() == time && lane.pid(lane.size() - 1) != -1);
+                }
+                preempted = -1;
+            }
+            lanes[cpu].add(-1, lanes[cpu].length(), time); // IDLE since the last run on this CPU
+            running[cpu] = p;
+            runStart[cpu] = time;
+            if (store.firstStartTime(p) == -1) {
+                store.setFirstStartTime(p, time);
+            }
+            policy.dispatched(store, p, time);
+            scheduleRunEnd(cpu, time, true);
+        }
+
+        // Plans the next event of the CPU: completion (non-preemptive runs always finish), or the policy's run limit,
+        // such as the instant the best waiting process overtakes the running one under a negative burst weight
+        private void scheduleRunEnd(int cpu, int time, boolean fresh) {
+            int p = running[cpu];
+            int end = runStart[cpu] + store.remainingTime(p);
+            if (preemptive && !queues[cpu].isEmpty()) {
+                end = policy.runLimit(store, p, queues[cpu].peek(), time, end);
+            }
+            if (end != runEnd[cpu] || fresh) {
+                runEnd[cpu] = end;
+                addEvent(((long) end << 32) | cpu);
+            }
+        }
+
+        private void markDirty(int cpu) {
+            if (!isDirty[cpu]) {
+                isDirty[cpu] = true;
+                dirty[dirtyCount++] = cpu;
+            }
+        }
+
+        private void addEvent(long event) {
+            if (eventCount == events.length) {
+                events = Arrays.copyOf(events, eventCount * 2);
+            }
+            int i = eventCount++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (events[parent] <= event) {
+                    break;
+                }
+                events[i] = events[parent];
+                i = parent;
+            }
+            events[i] = event;
+        }
+
+        private long pollEvent() {
+            long result = events[0];
+            long last = events[--eventCount];
+            int i = 0, half = eventCount >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < eventCount && events[child + 1] < events[child]) {
+                    child++;
+                }
+                if (events[child] >= last) {
+                    break;
+                }
+                events[i] = events[child];
+                i = child;
+            }
+            events[i] = last;
+            return result;
+        }
+    }
+
+    // Searches Dynamic Priority Boost weights for a workload. Every (burstWeight, waitWeight) pair of a grid or a
+    // random sample is scheduled without a Gantt chart, in parallel on a fork-join pool, and the pairs that no other
+    // pair beats on both average waiting time and average turnaround time form the Pareto front.
+    // Usage: java -cp <classes> main.Main$WeightSweep <workload.csv> [--burst-weights <from>:<to>:<steps>]
+    //        [--wait-weights <from>:<to>:<steps>] [--samples <n>] [--seed <s>] [--cpus <k>] [--threads <n>] [--all]
+    static final class WeightSweep {
+
+        // Default ranges as {from, to, steps}
+        static final double[] BURST_WEIGHTS = {-2, 2, 21}, WAIT_WEIGHTS = {0, 4, 21};
+
+        // One evaluated pair of weights
+        static final class Point {
+            final double burstWeight, waitWeight;
+            final double averageWaitingTime, averageTurnaroundTime;
+
+            Point(double burstWeight, double waitWeight, double averageWaitingTime, double averageTurnaroundTime) {
+                this.burstWeight = burstWeight;
+                this.waitWeight = waitWeight;
+                this.averageWaitingTime = averageWaitingTime;
+                this.averageTurnaroundTime = averageTurnaroundTime;
+            }
+        }
+
+        // Evaluates a slice of the weight pairs, splitting it in halves until one pair is left
+        static final class Task extends java.util.concurrent.RecursiveAction {
+            final Workload workload;
+            final int[] order;
+            final int cpus;
+            final double[][] weights;
+            final Point[] points;
+            final int from, to;
+
+            Task(Workload workload, int[] order, int cpus, double[][] weights, Point[] points, int from, int to) {
+                this.workload = workload;
+                this.order = order;
+                this.cpus = cpus;
+                this.weights = weights;
+                this.points = points;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from == 1) {
+                    points[from] = evaluate(workload, order, cpus, weights[from][0], weights[from][1]);
+                    return;
+                }
+                int mid = (from + to) >>> 1;
+                invokeAll(new Task(workload, order, cpus, weights, points, from, mid),
+                        new Task(workload, order, cpus, weights, points, mid, to));
+            }
+        }
+
+        // Every combination of steps evenly spaced weights in [from, to] (just 'from' when steps is 1)
+        static double[][] grid(double burstFrom, double burstTo, int burstSteps, double waitFrom, double waitTo, int waitSteps) {
+            double[][] weights = new double[burstSteps * waitSteps][];
+            for (int b = 0; b < burstSteps; b++) {
+                for (int w = 0; w < waitSteps; w++) {
+                    weights[b * waitSteps + w] = new double[]{step(burstFrom, burstTo, b, burstSteps), step(waitFrom, waitTo, w, waitSteps)};
+                }
+            }
+            return weights;
+        }
+
+        private static double step(double from, double to, int index, int steps) {
+            return steps == 1 ? from : from + (to - from) * index / (steps - 1);
+        }
+
+        // Uniformly random weights from the same ranges; a fixed seed gives the same sample every time
+        static double[][] sample(double burstFrom, double burstTo, double waitFrom, double waitTo, int samples, long seed) {
+            Random random = new Random(seed);
+            double[][] weights = new double[samples][];
+            for (int i = 0; i < samples; i++) {
+                weights[i] = new double[]{burstFrom + (burstTo - burstFrom) * random.nextDouble(),
+                        waitFrom + (waitTo - waitFrom) * random.nextDouble()};
+            }
+            return weights;
+        }
+
+        // Schedules the workload once per weight pair on the pool; points are returned in the order of the pairs
+        static Point[] evaluate(Workload workload, int cpus, double[][] weights, java.util.concurrent.ForkJoinPool pool) {
+            Point[] points = new Point[weights.length];
+            if (weights.length > 0) {
+                pool.invoke(new Task(workload, Scheduler.arrivalOrder(workload), cpus, weights, points, 0, weights.length));
+            }
+            return points;
+        }
+
+        // Averages only, so concurrent evaluations share nothing but the workload
+        static Point evaluate(Workload workload, int[] order, int cpus, double burstWeight, double waitWeight) {
+            Scheduler.checkCancelled();
+            if (cpus > 1) {
+                ScheduleResult result = MultiCoreScheduler.schedule(workload, 2, cpus, MultiCoreScheduler.LEAST_LOADED, true,
+                        burstWeight, waitWeight);
+                return new Point(burstWeight, waitWeight, result.averageWaitingTime(), result.averageTurnaroundTime());
+            }
+            double[] averages = Scheduler.averages(workload, order, 2, burstWeight, waitWeight);
+            return new Point(burstWeight, waitWeight, averages[0], averages[1]);
+        }
+
+        // Points not dominated by any other, by increasing average waiting time (and so decreasing turnaround).
+        // Of several points with the same averages only the first is kept.
+        static Point[] paretoFront(Point[] points) {
+            Point[] sorted = points.clone();
+            Arrays.sort(sorted, new Comparator<Point>() {
+                @Override
+                public int compare(Point a, Point b) {
+                    int byWaiting = Double.compare(a.averageWaitingTime, b.averageWaitingTime);
+                    return byWaiting != 0 ? byWaiting : Double.compare(a.averageTurnaroundTime, b.averageTurnaroundTime);
+                }
+            });
+            ArrayList<Point> front = new ArrayList<>();
+            for (Point point : sorted) {
+                if (front.isEmpty() || point.averageTurnaroundTime < front.get(front.size() - 1).averageTurnaroundTime) {
+                    front.add(point);
+                }
+            }
+            return front.toArray(new Point[0]);
+        }
+
+        public static void main(String[] args) {
+            String inputFile = null;
+            double[] burstRange = BURST_WEIGHTS, waitRange = WAIT_WEIGHTS;
+            int samples = 0, cpus = 1, threads = Runtime.getRuntime().availableProcessors();
+            long seed = 42;
+            boolean all = false;
+            try {
+                for (int i = 0; i < args.length; i++) {
+                    if (args[i].equals("--all")) {
+                        all = true;
+                    } else if (args[i].equals("--burst-weights") && i + 1 < args.length) {
+                        burstRange = parseRange(args[++i]);
+                    } else if (args[i].equals("--wait-weights") && i + 1 < args.length) {
+                        waitRange = parseRange(args[++i]);
+                    } else if (args[i].equals("--samples") && i + 1 < args.length) {
+                        samples = Integer.parseInt(args[++i]);
+                    } else if (args[i].equals("--seed") && i + 1 < args.length) {
+                        seed = Long.parseLong(args[++i]);
+                    } else if (args[i].equals("--cpus") && i + 1 < args.length) {
+                        cpus = Integer.parseInt(args[++i]);
+                    } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                        threads = Integer.parseInt(args[++i]);
+                    } else if (!args[i].startsWith("-") && inputFile == null) {
+                        inputFile = args[i];
+                    } else {
+                        usage("Unknown argument: " + args[i]);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                usage("Invalid value: " + e.getMessage());
+            }
+            if (inputFile == null) {
+                usage("Missing workload file");
+            }
+            if (samples < 0 || cpus < 1 || threads < 1) {
+                usage("--samples, --cpus and --threads must be positive");
+            }
+
+            double[][] weights = samples > 0
+                    ? sample(burstRange[0], burstRange[1], waitRange[0], waitRange[1], samples, seed)
+                    : grid(burstRange[0], burstRange[1], (int) burstRange[2], waitRange[0], waitRange[1], (int) waitRange[2]);
+            java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(threads);
+            try {
+                Workload workload = BatchRunner.readWorkload(new java.io.File(inputFile));
+                long start = System.nanoTime();
+                Point[] points = evaluate(workload, cpus, weights, pool);
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                Point[] front = paretoFront(points);
+
+                StringBuilder out = new StringBuilder("burst_weight,wait_weight,avg_waiting,avg_turnaround,pareto\n");
+                for (Point point : all ? points : front) {
+                    out.append(String.format(Locale.ROOT, "%.4f,%.4f,%.4f,%.4f,%d%n", point.burstWeight, point.waitWeight,
+                            point.averageWaitingTime, point.averageTurnaroundTime, Arrays.asList(front).contains(point) ? 1 : 0));
+                }
+                System.out.print(out);
+
+                // The defaults, for comparison with the front
+                Point defaults = evaluate(workload, Scheduler.arrivalOrder(workload), cpus, Scheduler.BURST_WEIGHT, Scheduler.WAIT_WEIGHT);
+                System.err.println(String.format(Locale.ROOT, "%d weight pairs in %d ms on %d threads, %d on the Pareto front",
+                        points.length, elapsedMs, threads, front.length));
+                System.err.println(String.format(Locale.ROOT, "Default weights (%.2f, %.2f): avg waiting %.4f, avg turnaround %.4f",
+                        defaults.burstWeight, defaults.waitWeight, defaults.averageWaitingTime, defaults.averageTurnaroundTime));
+            } catch (IllegalArgumentException | java.io.IOException e) {
+                System.err.println("Error: " + e.getMessage());
+                System.exit(1);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        // "from:to:steps", e.g. "-2:2:21"
+        private static double[] parseRange(String value) {
+            String[] parts = value.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(value);
+            }
+            double[] range = {Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Integer.parseInt(parts[2])};
+            if (range[2] < 1 || !(Math.abs(range[0]) <= Scheduler.MAX_WEIGHT) || !(Math.abs(range[1]) <= Scheduler.MAX_WEIGHT)) {
+                throw new IllegalArgumentException(value);
+            }
+            return range;
+        }
+
+        private static void usage(String message) {
+            System.err.println(message);
+            System.err.println("Usage: main.Main$WeightSweep <workload.csv> [--burst-weights <from>:<to>:<steps>] [--wait-weights <from>:<to>:<steps>]");
+            System.err.println("       [--samples <n>] [--seed <s>] [--cpus <k>] [--threads <n>] [--all]");
+            System.err.println("Evaluates Dynamic Priority Boost weights on a grid (default -2:2:21 by 0:4:21) or --samples random pairs");
+            System.err.println("and prints the Pareto front of average waiting against turnaround time (every pair with --all)");
+            System.exit(2);
+        }
+    }
+
+    // Compares every algorithm in Scheduler.ALGORITHM_NAMES over many random workloads. Workload i is generated from
+    // seed + i, so a run is reproducible whatever the number of threads; workloads are scheduled in parallel on a
+    // fork-join pool and their averages reduced in index order afterwards, which keeps even the floating-point sums
+    // identical.
+    // Usage: java -cp <classes> main.Main$MonteCarlo [--workloads 1000] [--processes 50] [--bursts uniform|exponential|bimodal]
+    //        [--mean-burst 20] [--priorities 10] [--gap 10] [--seed 42] [--cpus <k>] [--threads <n>]
+    //        [--burst-weight <w>] [--wait-weight <w>]
+    static final class MonteCarlo {
+
+        static final int ALGORITHMS = Scheduler.ALGORITHM_NAMES.length;
+
+        // Per-algorithm statistics over all workloads. Win rates share ties equally between the tied algorithms.
+        static final class Summary {
+            final int algorithm, workloads;
+            final double meanWaitingTime, waitingTimeCi, meanTurnaroundTime, turnaroundTimeCi;
+            final double waitingWinRate, turnaroundWinRate;
+
+            Summary(int algorithm, int workloads, double meanWaitingTime, double waitingTimeCi, double meanTurnaroundTime,
+                    double turnaroundTimeCi, double waitingWinRate, double turnaroundWinRate) {
+                this.algorithm = algorithm;
+                this.workloads = workloads;
+                this.meanWaitingTime = meanWaitingTime;
+                this.waitingTimeCi = waitingTimeCi;
+                this.meanTurnaroundTime = meanTurnaroundTime;
+                this.turnaroundTimeCi = turnaroundTimeCi;
+                this.waitingWinRate = waitingWinRate;
+                this.turnaroundWinRate = turnaroundWinRate;
+            }
+        }
+
+        // Generates and schedules a slice of the workloads, splitting it until it is small enough to run directly
+        static final class Task extends java.util.concurrent.RecursiveAction {
+            static final int SLICE = 8; // Workloads per leaf; enough to amortize the task overhead for small workloads
+
+            final WorkloadGenerator generator;
+            final long seed;
+            final int cpus;
+            final double burstWeight, waitWeight;
+            final double[][] waitingTimes, turnaroundTimes; // [algorithm][workload] averages
+            final int from, to;
+
+            Task(WorkloadGenerator generator, long seed, int cpus, double burstWeight, double waitWeight,
+                 double[][] waitingTimes, double[][] turnaroundTimes, int from, int to) {
+                this.generator = generator;
+                this.seed = seed;
+                this.cpus = cpus;
+                this.burstWeight = burstWeight;
+                this.waitWeight = waitWeight;
+                this.waitingTimes = waitingTimes;
+                this.turnaroundTimes = turnaroundTimes;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= SLICE) {
+                    for (int i = from; i < to; i++) {
+                        Scheduler.checkCancelled();
+                        Workload workload = generator.generate(seed + i);
+                        int[] order = Scheduler.arrivalOrder(workload);
+                        for (int algo = 0; algo < ALGORITHMS; algo++) {
+                            if (cpus == 1) {
+                                double[] averages = Scheduler.averages(workload, order, algo, burstWeight, waitWeight);
+                                waitingTimes[algo][i] = averages[0];
+                                turnaroundTimes[algo][i] = averages[1];
+                            } else {
+                                ScheduleResult result = MultiCoreScheduler.schedule(workload, algo, cpus,
+                                        MultiCoreScheduler.LEAST_LOADED, true, burstWeight, waitWeight);
+                                waitingTimes[algo][i] = result.averageWaitingTime();
+                                turnaroundTimes[algo][i] = result.averageTurnaroundTime();
+                            }
+                        }
+                    }
+                    return;
+                }
+                int mid = (from + to) >>> 1;
+                invokeAll(new Task(generator, seed, cpus, burstWeight, waitWeight, waitingTimes, turnaroundTimes, from, mid),
+                        new Task(generator, seed, cpus, burstWeight, waitWeight, waitingTimes, turnaroundTimes, mid, to));
+            }
+        }
+
+        // Runs every algorithm on the given number of generated workloads. The generator must not change meanwhile.
+        static Summary[] run(WorkloadGenerator generator, int workloads, long seed, int cpus, double burstWeight,
+                             double waitWeight, java.util.concurrent.ForkJoinPool pool) {
+            double[][] waitingTimes = new double[ALGORITHMS][workloads], turnaroundTimes = new double[ALGORITHMS][workloads];
+            if (workloads > 0) {
+                pool.invoke(new Task(generator, seed, cpus, burstWeight, waitWeight, waitingTimes, turnaroundTimes, 0, workloads));
+            }
+            double[] waitingWins = wins(waitingTimes), turnaroundWins = wins(turnaroundTimes);
+            Summary[] summaries = new Summary[ALGORITHMS];
+            for (int algo = 0; algo < ALGORITHMS; algo++) {
+                summaries[algo] = new Summary(algo, workloads,
+                        mean(waitingTimes[algo]), confidenceInterval(waitingTimes[algo]),
+                        mean(turnaroundTimes[algo]), confidenceInterval(turnaroundTimes[algo]),
+                        waitingWins[algo] / Math.max(1, workloads), turnaroundWins[algo] / Math.max(1, workloads));
+            }
+            return summaries;
+        }
+
+        // Workloads won by each algorithm (lowest value), ties shared
+        private static double[] wins(double[][] values) {
+            double[] wins = new double[values.length];
+            for (int i = 0; i < values[0].length; i++) {
+                double best = Double.POSITIVE_INFINITY;
+                int tied = 0;
+                for (double[] algorithmValues : values) {
+                    if (algorithmValues[i] < best) {
+                        best = algorithmValues[i];
+                        tied = 1;
+                    } else if (algorithmValues[i] == best) {
+                        tied++;
+                    }
+                }
+                for (int algo = 0; algo < values.length; algo++) {
+                    if (values[algo][i] == best) {
+                        wins[algo] += 1.0 / tied;
+                    }
+                }
+            }
+            return wins;
+        }
+
+        private static double mean(double[] values) {
+            double sum = 0;
+            for (double value : values) {
+                sum += value;
+            }
+            return values.length == 0 ? 0 : sum / values.length;
+        }
+
+        // Half-width of the 95% confidence interval of the mean (normal approximation, fine for the usual
+        // hundreds or thousands of workloads)
+        private static double confidenceInterval(double[] values) {
+            int n = values.length;
+            if (n < 2) {
+                return 0;
+            }
+            double mean = mean(values), squares = 0;
+            for (double value : values) {
+                squares += (value - mean) * (value - mean);
+            }
+            return 1.96 * Math.sqrt(squares / (n - 1) / n);
+        }
+
+        public static void main(String[] args) {
+            WorkloadGenerator generator = new WorkloadGenerator();
+            generator.processCount = 50;
+            int workloads = 1000, cpus = 1, threads = Runtime.getRuntime().availableProcessors();
+            long seed = 42;
+            double burstWeight = Scheduler.BURST_WEIGHT, waitWeight = Scheduler.WAIT_WEIGHT;
+            try {
+                for (int i = 0; i + 1 < args.length; i += 2) {
+                    String value = args[i + 1];
+                    switch (args[i]) {
+                        case "--workloads": workloads = Integer.parseInt(value); break;
+                        case "--processes": generator.processCount = Integer.parseInt(value); break;
+                        case "--bursts": generator.burstDistribution = value; break;
+                        case "--mean-burst": generator.meanBurst = Integer.parseInt(value); break;
+                        case "--priorities": generator.prioritySpread = Integer.parseInt(value); break;
+                        case "--gap": generator.meanArrivalGap = Double.parseDouble(value); break;
+                        case "--seed": seed = Long.parseLong(value); break;
+                        case "--cpus": cpus = Integer.parseInt(value); break;
+                        case "--threads": threads = Integer.parseInt(value); break;
+                        case "--burst-weight": burstWeight = Double.parseDouble(value); break;
+                        case "--wait-weight": waitWeight = Double.parseDouble(value); break;
+                        default: usage("Unknown argument: " + args[i]);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                usage("Invalid value: " + e.getMessage());
+            }
+            if (args.length % 2 != 0) {
+                usage("Missing value for " + args[args.length - 1]);
+            }
+            if (!Arrays.asList(WorkloadGenerator.BURST_DISTRIBUTIONS).contains(generator.burstDistribution)) {
+                usage("Unknown burst distribution: " + generator.burstDistribution);
+            }
+            if (workloads < 1 || generator.processCount < 1 || cpus < 1 || threads < 1) {
+                usage("--workloads, --processes, --cpus and --threads must be positive");
+            }
+            if (!(Math.abs(burstWeight) <= Scheduler.MAX_WEIGHT) || !(Math.abs(waitWeight) <= Scheduler.MAX_WEIGHT)) {
+                usage("--burst-weight and --wait-weight must be between -" + (int) Scheduler.MAX_WEIGHT + " and " + (int) Scheduler.MAX_WEIGHT);
+            }
+
+            java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(threads);
+            try {
+                long start = System.nanoTime();
+                Summary[] summaries = run(generator, workloads, seed, cpus, burstWeight, waitWeight, pool);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.println("algorithm,workloads,mean_waiting,waiting_ci95,mean_turnaround,turnaround_ci95,waiting_win_rate,turnaround_win_rate");
+                for (Summary summary : summaries) {
+                    System.out.println(String.format(Locale.ROOT, "%s,%d,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f",
+                            BatchRunner.ALGORITHM_IDS[summary.algorithm], summary.workloads,
+                            summary.meanWaitingTime, summary.waitingTimeCi, summary.meanTurnaroundTime, summary.turnaroundTimeCi,
+                            summary.waitingWinRate, summary.turnaroundWinRate));
+                }
+                System.err.println(String.format(Locale.ROOT, "%d workloads in %.2f s on %d threads (%.0f workloads/s)",
+                        workloads, seconds, threads, workloads / seconds));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        private static void usage(String message) {
+            System.err.println(message);
+            System.err.println("Usage: main.Main$MonteCarlo [--workloads 1000] [--processes 50] [--bursts uniform|exponential|bimodal]");
+            System.err.println("       [--mean-burst 20] [--priorities 10] [--gap 10] [--seed 42] [--cpus <k>] [--threads <n>]");
+            System.err.println("       [--burst-weight <w>] [--wait-weight <w>]");
+            System.err.println("Prints the mean waiting and turnaround time of each algorithm with 95% confidence intervals and win rates");
+            System.exit(2);
+        }
+    }
+
+    // Random workload generator shared by the benchmark and other headless tools
+    static class WorkloadGenerator {
+
+        static final String[] BURST_DISTRIBUTIONS = {"uniform", "exponential", "bimodal"};
+
+        int processCount = 1000;
+        String burstDistribution = "uniform";
+        int meanBurst = 20; // Average burst time
+        int prioritySpread = 10; // Priorities are drawn from 0..prioritySpread-1
+        double meanArrivalGap = 10; // Average time between consecutive arrivals (lower = denser)
+
+        Workload generate(long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] pids = new int[processCount], arrivalTimes = new int[processCount];
+            int[] burstTimes = new int[processCount], priorities = new int[processCount];
+            double arrival = 0;
+            for (int i = 0; i < processCount; i++) {
+                int burst;
+                switch (burstDistribution) {
+                    case "exponential":
+                        burst = 1 + (int) (-Math.log(1 - random.nextDouble()) * (meanBurst - 1));
+                        break;
+                    case "bimodal":
+                        // Mostly short interactive bursts with occasional long batch bursts
+                        burst = random.nextInt(10) < 8
+                                ? 1 + random.nextInt(Math.max(1, meanBurst / 4))
+                                : 1 + random.nextInt(Math.max(1, meanBurst * 4 - meanBurst / 2));
+                        break;
+                    default:
+                        burst = 1 + random.nextInt(Math.max(1, 2 * meanBurst - 1));
+                        break;
+                }
+                pids[i] = i + 1;
+                arrivalTimes[i] = (int) arrival;
+                burstTimes[i] = burst;
+                priorities[i] = random.nextInt(Math.max(1, prioritySpread));
+                arrival += -Math.log(1 - random.nextDouble()) * meanArrivalGap;
+            }
+            return new Workload(pids, arrivalTimes, burstTimes, priorities);
+        }
+    }
+
+    // Micro-benchmark harness for every algorithm in Scheduler.ALGORITHM_NAMES. Runs headless, like BatchRunner.
+    // Usage: java -cp <classes> main.Main$Benchmark [--processes 1000,10000,...] [--bursts uniform,exponential,bimodal]
+    //        [--mean-burst 20] [--priorities 10] [--gaps 10,1] [--algorithm preemptive|non-preemptive|dynamic|round-robin|all]
+    //        [--warmup 3] [--iterations 5] [--seed 42] [--store heap|off-heap] [--cpus 1,16,128]
+    static class Benchmark {
+
+        static volatile long sink; // Keeps results observable so runs are not optimized away
+
+        public static void main(String[] args) {
+            int[] processCounts = {1000, 10000, 100000, 1000000};
+            String[] bursts = {"uniform"};
+            double[] gaps = {10};
+            int meanBurst = 20, priorities = 10, warmup = 3, iterations = 5;
+            long seed = 42;
+            String algorithm = "all";
+            boolean offHeap = false;
+            int[] cpuCounts = {1};
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--processes": processCounts = parseInts(value); break;
+                    case "--bursts": bursts = value.split(","); break;
+                    case "--mean-burst": meanBurst = Integer.parseInt(value); break;
+                    case "--priorities": priorities = Integer.parseInt(value); break;
+                    case "--gaps":
+                        String[] parts = value.split(",");
+                        gaps = new double[parts.length];
+                        for (int g = 0; g < parts.length; g++) {
+                            gaps[g] = Double.parseDouble(parts[g]);
+                        }
+                        break;
+                    case "--algorithm": algorithm = value; break;
+                    case "--warmup": warmup = Integer.parseInt(value); break;
+                    case "--iterations": iterations = Integer.parseInt(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--cpus": cpuCounts = parseInts(value); break;
+                    case "--store":
+                        if (!value.equals("heap") && !value.equals("off-heap")) {
+                            System.err.println("Unknown store: " + value);
+                            System.exit(2);
+                        }
+                        offHeap = value.equals("off-heap");
+                        break;
+                    default:
+                        System.err.println("Unknown argument: " + args[i]);
+                        System.exit(2);
+                }
+            }
+
+            int[] algorithms = algorithm.equals("all") ? new int[BatchRunner.ALGORITHM_IDS.length]
+                    : new int[]{Arrays.asList(BatchRunner.ALGORITHM_IDS).indexOf(algorithm)};
+            if (algorithm.equals("all")) {
+                for (int a = 0; a < algorithms.length; a++) {
+                    algorithms[a] = a;
+                }
+            }
+            if (algorithms[0] < 0) {
+                System.err.println("Unknown algorithm: " + algorithm);
+                System.exit(2);
+            }
+            for (String burst : bursts) {
+                if (!Arrays.asList(WorkloadGenerator.BURST_DISTRIBUTIONS).contains(burst)) {
+                    System.err.println("Unknown burst distribution: " + burst);
+                    System.exit(2);
+                }
+            }
+
+            System.out.println("algorithm,processes,cpus,bursts,gap,ops_per_s,ms_per_op,events_per_op,ns_per_event,bytes_per_op,alloc_mb_per_s");
+            WorkloadGenerator generator = new WorkloadGenerator();
+            generator.meanBurst = meanBurst;
+            generator.prioritySpread = priorities;
+            for (String burst : bursts) {
+                for (double gap : gaps) {
+                    for (int count : processCounts) {
+                        generator.processCount = count;
+                        generator.burstDistribution = burst;
+                        generator.meanArrivalGap = gap;
+                        Workload workload = generator.generate(seed);
+                        for (int algo : algorithms) {
+                            for (int cpus : cpuCounts) {
+                                System.out.println(measure(algo, workload, cpus, offHeap, warmup, iterations, burst, gap));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        static int[] parseInts(String value) {
+            String[] parts = value.split(",");
+            int[] result = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                result[i] = Integer.parseInt(parts[i].trim());
+            }
+            return result;
+        }
+
+        // Runs warmup iterations, then reports the averages over the measured ones
+        static String measure(int algorithm, Workload workload, int cpus, boolean offHeap, int warmup, int iterations,
+                              String burst, double gap) {
+            for (int i = 0; i < warmup; i++) {
+                runOnce(algorithm, workload, cpus, offHeap);
+            }
+            long elapsed = 0, allocated = 0, events = 0;
+            for (int i = 0; i < iterations; i++) {
+                long bytesBefore = allocatedBytes();
+                long start = System.nanoTime();
+                events += runOnce(algorithm, workload, cpus, offHeap);
+                elapsed += System.nanoTime() - start;
+                allocated += allocatedBytes() - bytesBefore;
+            }
+            double nsPerOp = (double) elapsed / iterations;
+            double eventsPerOp = (double) events / iterations;
+            double bytesPerOp = (double) allocated / iterations;
+            return String.format(Locale.ROOT, "%s,%d,%d,%s,%.2f,%.3f,%.3f,%.0f,%.2f,%.0f,%.1f",
+                    BatchRunner.ALGORITHM_IDS[algorithm], workload.size(), cpus, burst, gap,
+                    1e9 / nsPerOp, nsPerOp / 1e6, eventsPerOp, nsPerOp / eventsPerOp, bytesPerOp,
+                    bytesPerOp / nsPerOp * 1e9 / (1024 * 1024));
+        }
+
+        // One scheduling run; returns the number of simulated events (arrivals plus Gantt segments)
+        static long runOnce(int algorithm, Workload workload, int cpus, boolean offHeap) {
+            ScheduleResult result = cpus == 1 ? Scheduler.schedule(workload, algorithm, offHeap)
+                    : MultiCoreScheduler.schedule(workload, algorithm, cpus, MultiCoreScheduler.LEAST_LOADED, true);
+            long events = workload.size();
+            for (int cpu = 0; cpu < result.cpuCount(); cpu++) {
+                events += result.lane(cpu).size();
+            }
+            sink += result.makespan();
+            return events;
+        }
+
+        // Bytes allocated by the current thread so far, or 0 when the JVM does not report it
+        private static long allocatedBytes() {
+            java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+            return 0;
+        }
+    }
+
+    // Scaling check: times the schedulers on generated workloads of 10^3 to 10^6 processes and fails (exit status 1)
+    // when a tenfold larger workload takes more than TOLERANCE times the n log n growth. A linear scan per step
+    // grows a hundredfold per decade, far past that bound. Each size is timed as the fastest of a few runs after
+    // warming up, so GC pauses and compilation do not count. Runs headless, like Benchmark.
+    // Usage: java -cp <classes> main.Main$ScalingCheck [--processes 1000,10000,100000,1000000]
+    //        [--algorithm preemptive|non-preemptive|dynamic|round-robin|all] [--iterations 5] [--seed 42]
+    static class ScalingCheck {
+
+        static final double TOLERANCE = 3;
+
+        public static void main(String[] args) {
+            int[] processCounts = {1000, 10000, 100000, 1000000};
+            String algorithm = "all";
+            int iterations = 5;
+            long seed = 42;
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--processes": processCounts = Benchmark.parseInts(value); break;
+                    case "--algorithm": algorithm = value; break;
+                    case "--iterations": iterations = Integer.parseInt(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    default:
+                        System.err.println("Unknown argument: " + args[i]);
+                        System.exit(2);
+                }
+            }
+            int[] algorithms = algorithm.equals("all") ? new int[BatchRunner.ALGORITHM_IDS.length]
+                    : new int[]{Arrays.asList(BatchRunner.ALGORITHM_IDS).indexOf(algorithm)};
+            if (algorithm.equals("all")) {
+                for (int a = 0; a < algorithms.length; a++) {
+                    algorithms[a] = a;
+                }
+            }
+            if (algorithms[0] < 0) {
+                System.err.println("Unknown algorithm: " + algorithm);
+                System.exit(2);
+            }
+            Arrays.sort(processCounts);
+
+            WorkloadGenerator generator = new WorkloadGenerator();
+            Workload[] workloads = new Workload[processCounts.length];
+            for (int s = 0; s < processCounts.length; s++) {
+                generator.processCount = processCounts[s];
+                workloads[s] = generator.generate(seed);
+            }
+
+            System.out.println("algorithm,processes,ms,ns_per_process,growth,allowed_growth");
+            boolean passed = true;
+            for (int algo : algorithms) {
+                double previous = 0;
+                for (int s = 0; s < workloads.length; s++) {
+                    int n = workloads[s].size();
+                    double ms = fastestRun(algo, workloads[s], iterations) / 1e6;
+                    String growth = "", allowed = "";
+                    if (s > 0) {
+                        int m = workloads[s - 1].size();
+                        double expected = (double) n * Math.log(n) / (m * Math.log(m));
+                        growth = String.format(Locale.ROOT, "%.1f", ms / previous);
+                        allowed = String.format(Locale.ROOT, "%.1f", expected * TOLERANCE);
+                        if (ms / previous > expected * TOLERANCE) {
+                            passed = false;
+                            System.err.println(BatchRunner.ALGORITHM_IDS[algo] + ": " + m + " -> " + n + " processes grew "
+                                    + growth + "x, more than " + allowed + "x");
+                        }
+                    }
+                    System.out.println(String.format(Locale.ROOT, "%s,%d,%.3f,%.1f,%s,%s",
+                            BatchRunner.ALGORITHM_IDS[algo], n, ms, ms * 1e6 / n, growth, allowed));
+                    previous = ms;
+                }
+            }
+            System.err.println(passed ? "Scaling within O(n log n)" : "Scaling check failed");
+            System.exit(passed ? 0 : 1);
+        }
+
+        // Fastest of the given number of runs, in nanoseconds, after as many warmup runs
+        private static long fastestRun(int algorithm, Workload workload, int iterations) {
+            for (int i = 0; i < iterations; i++) {
+                Benchmark.runOnce(algorithm, workload, 1, false);
+            }
+            long fastest = Long.MAX_VALUE;
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                Benchmark.runOnce(algorithm, workload, 1, false);
+                fastest = Math.min(fastest, System.nanoTime() - start);
+            }
+            return fastest;
+        }
+    }
+
+    // Equivalence check of the schedulers against each other: for every algorithm, MultiCoreScheduler on one CPU
+    // must give the same per-process results and Gantt chart as SchedulingEngine, and Dynamic Priority Boost must
+    // also match tickReference, which evaluates the formula for every ready process at every unit of time as the
+    // scheduler originally did. Workload i is generated from seed + i with its own size, density, bursts,
+    // priorities and weights, so a failure can be rerun on its own.
+    // Prints the first mismatches and exits with status 1 if there are any. Runs headless, like Benchmark.
+    // Usage: java -cp <classes> main.Main$EquivalenceCheck [--workloads 2000] [--seed 1]
+    static class EquivalenceCheck {
+
+        // Includes weights that are not sums of powers of two, as WeightSweep's grid produces
+        static final double[] BURST_WEIGHTS = {0.5, -0.7, 0, 1.3, 0.1, -0.3}, WAIT_WEIGHTS = {2, 0.3, 0, 0.7};
+        static final int MAX_REPORTED = 10;
+
+        public static void main(String[] args) {
+            int workloads = 2000;
+            long seed = 1;
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--workloads": workloads = Integer.parseInt(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    default:
+                        System.err.println("Unknown argument: " + args[i]);
+                        System.exit(2);
+                }
+            }
+            int failures = 0;
+            WorkloadGenerator generator = new WorkloadGenerator();
+            for (int i = 0; i < workloads; i++) {
+                SplittableRandom random = new SplittableRandom(seed + i);
+                generator.processCount = random.nextInt(10) == 0 ? 1 + random.nextInt(500) : 1 + random.nextInt(60);
+                generator.burstDistribution = WorkloadGenerator.BURST_DISTRIBUTIONS[random.nextInt(WorkloadGenerator.BURST_DISTRIBUTIONS.length)];
+                generator.meanBurst = 2 + random.nextInt(19);
+                generator.prioritySpread = new int[]{1, 3, 10, 70}[random.nextInt(4)];
+                generator.meanArrivalGap = new double[]{0.2, 1, 5, 20}[random.nextInt(4)];
+                Workload workload = generator.generate(random.nextLong());
+                double burstWeight = BURST_WEIGHTS[random.nextInt(BURST_WEIGHTS.length)];
+                double waitWeight = WAIT_WEIGHTS[random.nextInt(WAIT_WEIGHTS.length)];
+                for (int algorithm = 0; algorithm < Scheduler.ALGORITHM_NAMES.length; algorithm++) {
+                    String difference = difference(Scheduler.schedule(workload, algorithm, burstWeight, waitWeight),
+                            MultiCoreScheduler.schedule(workload, algorithm, 1, MultiCoreScheduler.LEAST_LOADED, true,
+                                    burstWeight, waitWeight));
+                    if (difference != null && ++failures <= MAX_REPORTED) {
+                        System.err.println(String.format(Locale.ROOT, "Workload %d, %s, weights %s/%s: one-CPU MultiCoreScheduler differs, %s",
+                                i, BatchRunner.ALGORITHM_IDS[algorithm], burstWeight, waitWeight, difference));
+                    }
+                }
+                String difference = tickDifference(Scheduler.schedule(workload, 2, burstWeight, waitWeight), burstWeight, waitWeight);
+                if (difference != null && ++failures <= MAX_REPORTED) {
+                    System.err.println(String.format(Locale.ROOT, "Workload %d, dynamic, weights %s/%s: differs from the per-tick formula, %s",
+                            i, burstWeight, waitWeight, difference));
+                }
+            }
+            System.err.println(failures == 0 ? "All " + workloads + " workloads match" : failures + " mismatches");
+            System.exit(failures == 0 ? 0 : 1);
+        }
+
+        // The first difference between two results of the same workload, or null if they agree
+        static String difference(ScheduleResult expected, ScheduleResult actual) {
+            for (int i = 0; i < expected.workload.size(); i++) {
+                if (expected.completionTime(i) != actual.completionTime(i)
+                        || expected.waitingTime(i) != actual.waitingTime(i)
+                        || expected.firstStartTime(i) != actual.firstStartTime(i)) {
+                    return String.format(Locale.ROOT, "P%d has completion/waiting/first run %d/%d/%d instead of %d/%d/%d",
+                            expected.workload.pid(i), actual.completionTime(i), actual.waitingTime(i), actual.firstStartTime(i),
+                            expected.completionTime(i), expected.waitingTime(i), expected.firstStartTime(i));
+                }
+                if (expected.hasDynamicPriorities()
+                        && Double.compare(expected.dynamicPriority(i), actual.dynamicPriority(i)) != 0) {
+                    return String.format(Locale.ROOT, "P%d has dynamic priority %s instead of %s",
+                            expected.workload.pid(i), actual.dynamicPriority(i), expected.dynamicPriority(i));
+                }
+            }
+            SegmentSource a = expected.lane(0), b = actual.lane(0);
+            for (int k = 0; k < Math.max(a.size(), b.size()); k++) {
+                if (k >= a.size() || k >= b.size() || a.pid(k) != b.pid(k) || a.start(k) != b.start(k) || a.end(k) != b.end(k)) {
+                    return "Gantt chart differs from segment " + k;
+                }
+            }
+            return null;
+        }
+
+        // The first difference between a Dynamic Priority Boost result and a unit-by-unit run of the formula, or
+        // null if they agree. The running process stays among the candidates and keeps its time of entry into the
+        // ready queue until it is preempted; a restart only counts when it takes the CPU from another process.
+        static String tickDifference(ScheduleResult actual, double burstWeight, double waitWeight) {
+            Workload workload = actual.workload;
+            int n = workload.size();
+            long scaledBurstWeight = Scheduler.scaledWeight(burstWeight), scaledWaitWeight = Scheduler.scaledWeight(waitWeight);
+            int[] remaining = new int[n], completion = new int[n], firstStart = new int[n], lastReady = new int[n];
+            long[] dynamicPriority = new long[n];
+            ArrayList<ArrayList<Integer>> preemptions = new ArrayList<>(), restarts = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                remaining[i] = workload.burstTime(i);
+                completion[i] = -1;
+                firstStart[i] = -1;
+                dynamicPriority[i] = workload.priority(i) * Scheduler.WEIGHT_SCALE;
+                preemptions.add(new ArrayList<>());
+                restarts.add(new ArrayList<>());
+            }
+            ArrayList<Integer> readyQueue = new ArrayList<>();
+            boolean[] ready = new boolean[n];
+            int completed = 0, running = -1;
+            for (int time = 0; completed < n; time++) {
+                for (int i = 0; i < n; i++) {
+                    if (workload.arrivalTime(i) <= time && completion[i] == -1 && !ready[i]) {
+                        ready[i] = true;
+                        readyQueue.add(i);
+                        lastReady[i] = time;
+                    }
+                }
+                int next = -1;
+                for (int i : readyQueue) {
+                    dynamicPriority[i] = workload.priority(i) * Scheduler.WEIGHT_SCALE + remaining[i] * scaledBurstWeight
+                            - (time - lastReady[i]) * scaledWaitWeight;
+                    if (next == -1 || dynamicPriority[i] < dynamicPriority[next]
+                            || dynamicPriority[i] == dynamicPriority[next] && workload.arrivalTime(i) < workload.arrivalTime(next)) {
+                        next = i;
+                    }
+                }
+                if (next == -1) {
+                    continue;
+                }
+                if (running != -1 && running != next) {
+                    preemptions.get(running).add(time);
+                    lastReady[running] = time;
+                    if (firstStart[next] != -1) {
+                        restarts.get(next).add(time);
+                    }
+                }
+                if (firstStart[next] == -1) {
+                    firstStart[next] = time;
+                }
+                running = next;
+                if (--remaining[next] == 0) {
+                    completion[next] = time + 1;
+                    readyQueue.remove(Integer.valueOf(next));
+                    completed++;
+                    running = -1;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                int waiting = firstStart[i] - workload.arrivalTime(i);
+                for (int k = 0; k < Math.min(preemptions.get(i).size(), restarts.get(i).size()); k++) {
+                    waiting += restarts.get(i).get(k) - preemptions.get(i).get(k);
+                }
+                if (completion[i] != actual.completionTime(i) || waiting != actual.waitingTime(i)
+                        || firstStart[i] != actual.firstStartTime(i)) {
+                    return String.format(Locale.ROOT, "P%d has completion/waiting/first run %d/%d/%d instead of %d/%d/%d",
+                            workload.pid(i), actual.completionTime(i), actual.waitingTime(i), actual.firstStartTime(i),
+                            completion[i], waiting, firstStart[i]);
+                }
+                if (Double.compare((double) dynamicPriority[i] / Scheduler.WEIGHT_SCALE, actual.dynamicPriority(i)) != 0) {
+                    return String.format(Locale.ROOT, "P%d has dynamic priority %s instead of %s", workload.pid(i),
+                            actual.dynamicPriority(i), (double) dynamicPriority[i] / Scheduler.WEIGHT_SCALE);
+                }
+            }
+            return null;
+        }
+    }
+
+    // Working state of the processes in a scheduling run, stored column by column: each field of every process
+    // lives in one flat int (or long) array, indexed by slot. This avoids an object per process, and with
+    // offHeap the columns sit in direct memory where the garbage collector never scans. Slots of completed
+    // processes are reused, so the store only grows with the number of processes active at the same time.
+    static final class ProcessStore {
+
+        private static final int PID = 0, ARRIVAL = 1, BURST = 2, PRIORITY = 3, ORDER = 4, REMAINING = 5, COMPLETION = 6,
+                WAITING = 7, FIRST_START = 8, LAST_READY = 9, PREEMPTION_HEAD = 10, PREEMPTION_TAIL = 11, READY_TIE = 12,
+                SLICE_START = 13, INT_COLUMNS = 14;
+        private static final int READY_KEY = 0, DYNAMIC_PRIORITY = 1, LONG_COLUMNS = 2; // dynamicPriority holds double bits
+
+        private final boolean offHeap;
+        private int capacity;
+        private int[] ints; // On-heap columns, or null when offHeap
+        private long[] longs;
+        private java.nio.IntBuffer intBuffer; // Off-heap columns, or null when on-heap
+        private java.nio.LongBuffer longBuffer;
+        private int[] freeSlots = new int[16];
+        private int freeCount, usedSlots;
+
+        ProcessStore(int capacity, boolean offHeap) {
+            this.offHeap = offHeap;
+            allocateColumns(Math.max(16, capacity));
+        }
+
+        private void allocateColumns(int newCapacity) {
+            if ((long) newCapacity * INT_COLUMNS > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many active processes: " + newCapacity);
+            }
+            if (offHeap) {
+                java.nio.IntBuffer newInts = java.nio.ByteBuffer.allocateDirect(newCapacity * INT_COLUMNS * Integer.BYTES)
+                        .order(java.nio.ByteOrder.nativeOrder()).asIntBuffer();
+                java.nio.LongBuffer newLongs = java.nio.ByteBuffer.allocateDirect(newCapacity * LONG_COLUMNS * Long.BYTES)
+                        .order(java.nio.ByteOrder.nativeOrder()).asLongBuffer();
+                if (intBuffer != null) {
+                    for (int column = 0; column < INT_COLUMNS; column++) {
+                        newInts.put(column * newCapacity, intBuffer, column * capacity, capacity);
+                    }
+                    for (int column = 0; column < LONG_COLUMNS; column++) {
+                        newLongs.put(column * newCapacity, longBuffer, column * capacity, capacity);
+                    }
+                }
+                intBuffer = newInts;
+                longBuffer = newLongs;
+            } else {
+                int[] newInts = new int[newCapacity * INT_COLUMNS];
+                long[] newLongs = new long[newCapacity * LONG_COLUMNS];
+                if (ints != null) {
+                    for (int column = 0; column < INT_COLUMNS; column++) {
+                        System.arraycopy(ints, column * capacity, newInts, column * newCapacity, capacity);
+                    }
+                    for (int column = 0; column < LONG_COLUMNS; column++) {
+                        System.arraycopy(longs, column * capacity, newLongs, column * newCapacity, capacity);
+                    }
+                }
+                ints = newInts;
+                longs = newLongs;
+            }
+            capacity = newCapacity;
+        }
+
+        // Independent copy holding the same processes in the same slots
+        ProcessStore copy() {
+            ProcessStore copy = new ProcessStore(capacity, offHeap);
+            if (offHeap) {
+                copy.intBuffer.put(0, intBuffer, 0, capacity * INT_COLUMNS);
+                copy.longBuffer.put(0, longBuffer, 0, capacity * LONG_COLUMNS);
+            } else {
+                System.arraycopy(ints, 0, copy.ints, 0, capacity * INT_COLUMNS);
+                System.arraycopy(longs, 0, copy.longs, 0, capacity * LONG_COLUMNS);
+            }
+            copy.freeSlots = freeSlots.clone();
+            copy.freeCount = freeCount;
+            copy.usedSlots = usedSlots;
+            return copy;
+        }
+
+        // Takes a free slot for a newly arrived process and resets its per-run state (firstStartTime is -1)
+        int allocate(int pid, int arrivalTime, int burstTime, int priority, int order) {
+            int slot;
+            if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else {
+                if (usedSlots == capacity) {
+                    allocateColumns(capacity * 2);
+                }
+                slot = usedSlots++;
+            }
+            set(PID, slot, pid);
+            set(ARRIVAL, slot, arrivalTime);
+            set(BURST, slot, burstTime);
+            set(PRIORITY, slot, priority);
+            set(ORDER, slot, order);
+            set(REMAINING, slot, burstTime);
+            set(COMPLETION, slot, -1);
+            set(WAITING, slot, 0);
+            set(FIRST_START, slot, -1);
+            set(LAST_READY, slot, arrivalTime);
+            set(PREEMPTION_HEAD, slot, -1);
+            set(PREEMPTION_TAIL, slot, -1);
+            set(READY_TIE, slot, 0);
+            setLong(READY_KEY, slot, 0);
+            setDynamicPriority(slot, priority); // Initialize with original priority
+            return slot;
+        }
+
+        // Returns the slot of a completed process for reuse
+        void free(int slot) {
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+
+        // Slots currently held by processes
+        int activeCount() {
+            return usedSlots - freeCount;
+        }
+
+        private int get(int column, int i) {
+            int index = column * capacity + i;
+            return ints != null ? ints[index] : intBuffer.get(index);
+        }
+
+        private void set(int column, int i, int value) {
+            int index = column * capacity + i;
+            if (ints != null) {
+                ints[index] = value;
+            } else {
+                intBuffer.put(index, value);
+            }
+        }
+
+        private long getLong(int column, int i) {
+            int index = column * capacity + i;
+            return longs != null ? longs[index] : longBuffer.get(index);
+        }
+
+        private void setLong(int column, int i, long value) {
+            int index = column * capacity + i;
+            if (longs != null) {
+                longs[index] = value;
+            } else {
+                longBuffer.put(index, value);
+            }
+        }
+
+        int pid(int i) { return get(PID, i); }
+        int arrivalTime(int i) { return get(ARRIVAL, i); }
+        int burstTime(int i) { return get(BURST, i); }
+        int priority(int i) { return get(PRIORITY, i); }
+
+        // Position in the input, used to break ties in the ready queues
+        int order(int i) { return get(ORDER, i); }
+
+        int remainingTime(int i) { return get(REMAINING, i); }
+        void setRemainingTime(int i, int value) { set(REMAINING, i, value); }
+
+        int completionTime(int i) { return get(COMPLETION, i); }
+        void setCompletionTime(int i, int value) { set(COMPLETION, i, value); }
+
+        int waitingTime(int i) { return get(WAITING, i); }
+        void setWaitingTime(int i, int value) { set(WAITING, i, value); }
+
+        // Time when process first starts execution
+        int firstStartTime(int i) { return get(FIRST_START, i); }
+        void setFirstStartTime(int i, int value) { set(FIRST_START, i, value); }
+
+        // For dynamic priority calculation
+        int timeLastEnteredReadyQueue(int i) { return get(LAST_READY, i); }
+        void setTimeLastEnteredReadyQueue(int i, int value) { set(LAST_READY, i, value); }
+
+        // Time the process last got the CPU, for time slices
+        int sliceStart(int i) { return get(SLICE_START, i); }
+        void setSliceStart(int i, int value) { set(SLICE_START, i, value); }
+
+        // Oldest and newest preemption moment not yet paired with a restart, as indices into the engine's log
+        int preemptionHead(int i) { return get(PREEMPTION_HEAD, i); }
+        void setPreemptionHead(int i, int value) { set(PREEMPTION_HEAD, i, value); }
+        int preemptionTail(int i) { return get(PREEMPTION_TAIL, i); }
+        void setPreemptionTail(int i, int value) { set(PREEMPTION_TAIL, i, value); }
+
+        // Ready-queue order, set by the policy: lower readyKey first, then lower readyTie, then earlier order.
+        // For Dynamic Priority Boost the key is the time-independent part of the dynamic priority while waiting.
+        long readyKey(int i) { return getLong(READY_KEY, i); }
+        void setReadyKey(int i, long value) { setLong(READY_KEY, i, value); }
+        int readyTie(int i) { return get(READY_TIE, i); }
+        void setReadyTie(int i, int value) { set(READY_TIE, i, value); }
+
+        // For dynamic priority display
+        double dynamicPriority(int i) { return Double.longBitsToDouble(getLong(DYNAMIC_PRIORITY, i)); }
+        void setDynamicPriority(int i, double value) { setLong(DYNAMIC_PRIORITY, i, Double.doubleToRawLongBits(value)); }
+    }
+
+    // Rules of one scheduling algorithm. SchedulingEngine (one CPU) and MultiCoreScheduler (k CPUs) own the event
+    // loop, Gantt chart, metrics and results, and ask the policy only for decisions: where a process goes in the
+    // ready queue, whether the best waiting process takes the CPU from the running one, and how long a run may last
+    // before that is asked again. Per-process state lives in the ProcessStore (readyKey, readyTie,
+    // timeLastEnteredReadyQueue, dynamicPriority). Policies keep no per-run state, so one instance can serve
+    // concurrent runs. A new algorithm is a subclass plus an entry in Scheduler.policy and the algorithm name lists.
+    //
+    // The policy places a process by setting its readyKey and readyTie in enqueued(); the ready queue compares
+    // those with before() below. The comparison runs on every heap step, so it is kept out of the policy: a
+    // virtual call there would stop the JIT from inlining it once runs of several policies share the engine.
+    abstract static class SchedulingPolicy {
+
+        // Ready-queue order: lower readyKey, then lower readyTie, then earlier position in the list. Total, so
+        // runs are deterministic.
+        static boolean before(ProcessStore store, int a, int b) {
+            long ka = store.readyKey(a), kb = store.readyKey(b);
+            if (ka != kb) {
+                return ka < kb;
+            }
+            int ta = store.readyTie(a), tb = store.readyTie(b);
+            return ta != tb ? ta < tb : Scheduler.earlier(store.order(a), store.order(b));
+        }
+
+        // The process enters the ready queue: on arrival, or when preempted (its remaining time is up to date).
+        // Sets its readyKey and readyTie.
+        abstract void enqueued(ProcessStore store, int slot, int time);
+
+        // Ready queue for one CPU. The default heap keeps before() order; a policy with its own queue may ignore
+        // the keys.
+        ReadyQueue readyQueue(ProcessStore store, int capacity) {
+            return new IntHeap(store, capacity);
+        }
+
+        // The process gets the CPU at the given time, after waiting in the ready queue
+        void dispatched(ProcessStore store, int slot, int time) {
+        }
+
+        // False if a process, once started, always runs to completion
+        boolean preemptive() {
+            return true;
+        }
+
+        // True if the best waiting process takes the CPU from the running one at the given time. Asked of
+        // preemptive policies whenever something arrives or a run limit is reached. By default the running
+        // process keeps the keys it was queued with.
+        boolean preempts(ProcessStore store, int waiting, int running, int time) {
+            return before(store, waiting, running);
+        }
+
+        // Time up to which the running process may run before preempts is asked again, at most 'until' (its
+        // completion or the next arrival); waiting is the best waiting process
+        int runLimit(ProcessStore store, int running, int waiting, int time, int until) {
+            return until;
+        }
+
+        // Values besides the algorithm that change the schedule; part of the key of cached results
+        double[] parameters() {
+            return new double[0];
+        }
+
+        // True if completed() leaves a dynamic priority in the store for the results
+        boolean hasDynamicPriorities() {
+            return false;
+        }
+
+        // The process completed at the given time, which is already stored
+        void completed(ProcessStore store, int slot, int time) {
+        }
+
+        // Waiting time of a completed process: turnaround minus burst unless the policy counts waits differently.
+        // Both engines ask this when a process completes. The store's waiting time holds the gaps between each
+        // preemption and the restart the engine paired it with.
+        int waitingTime(ProcessStore store, int slot) {
+            return store.completionTime(slot) - store.arrivalTime(slot) - store.burstTime(slot);
+        }
+    }
+
+    // Priority Preemptive Scheduling: lowest priority number first, ties to the process that comes first in the
+    // list. A better process takes the CPU as soon as it arrives.
+    static final class PriorityPreemptivePolicy extends SchedulingPolicy {
+
+        @Override
+        void enqueued(ProcessStore store, int slot, int time) {
+            store.setReadyKey(slot, store.priority(slot));
+        }
+    }
+
+    // Priority Non-Preemptive Scheduling: lowest priority number first (lower priority number is higher priority),
+    // then by arrival time (FCFS), then by position in the list. A started process runs to completion.
+    static final class PriorityNonPreemptivePolicy extends SchedulingPolicy {
+
+        @Override
+        void enqueued(ProcessStore store, int slot, int time) {
+            store.setReadyKey(slot, store.priority(slot));
+            store.setReadyTie(slot, store.arrivalTime(slot));
+        }
+
+        @Override
+        boolean preemptive() {
+            return false;
+        }
+    }
+
+    // Dynamic Priority Boost Scheduling.
+    // Dynamic Priority Formula: OriginalPriority + (RemainingBurstTime * burstWeight) - (WaitTimeInQueue * waitWeight)
+    // This formula aims to:
+    // - Reward processes with lower original priority number (higher original priority)
+    // - Penalize processes with longer remaining burst time (lower priority for longer burst)
+    // - Reward processes that have waited longer (higher priority for longer wait)
+    //
+    // While a process waits, its value falls by waitWeight per unit, so all waiting processes keep their relative
+    // order and can live in a heap keyed on the time-independent part of the formula. The running process falls by
+    // burstWeight + waitWeight per unit, so it can only lose the CPU when something arrives, or (for a negative
+    // burstWeight) at the instant the best waiting process overtakes it.
+    // Ties go to the earlier arrival, then to the earlier position in the list.
+    // The formula is evaluated in millionths (see Scheduler.WEIGHT_SCALE), so the heap order is exactly the order
+    // of the reported dynamic priorities.
+    static final class DynamicPriorityBoostPolicy extends SchedulingPolicy {
+
+        final double burstWeight, waitWeight;
+        private final long scaledBurstWeight, scaledWaitWeight;
+
+        DynamicPriorityBoostPolicy(double burstWeight, double waitWeight) {
+            this.burstWeight = burstWeight;
+            this.waitWeight = waitWeight;
+            this.scaledBurstWeight = Scheduler.scaledWeight(burstWeight);
+            this.scaledWaitWeight = Scheduler.scaledWeight(waitWeight);
+        }
+
+        @Override
+        boolean preempts(ProcessStore store, int waiting, int running, int time) {
+            return Scheduler.outranks(store, waiting, running, store.remainingTime(running), time, scaledBurstWeight, scaledWaitWeight);
+        }
+
+        @Override
+        void enqueued(ProcessStore store, int slot, int time) {
+            store.setTimeLastEnteredReadyQueue(slot, time); // Record time of entry into ready queue
+            store.setReadyKey(slot, store.priority(slot) * Scheduler.WEIGHT_SCALE
+                    + (store.remainingTime(slot) * scaledBurstWeight) + (time * scaledWaitWeight));
+            store.setReadyTie(slot, store.arrivalTime(slot));
+        }
+
+        @Override
+        int runLimit(ProcessStore store, int running, int waiting, int time, int until) {
+            return scaledBurstWeight < 0
+                    ? Scheduler.nextOvertake(store, waiting, running, time, until, scaledBurstWeight, scaledWaitWeight) : until;
+        }
+
+        @Override
+        double[] parameters() {
+            return new double[]{burstWeight, waitWeight};
+        }
+
+        @Override
+        boolean hasDynamicPriorities() {
+            return true;
+        }
+
+        @Override
+        void completed(ProcessStore store, int slot, int time) {
+            // Dynamic priority as evaluated on its final unit of execution
+            long dynamicPriority = Scheduler.dynamicPriority(store, slot, 1, time - 1, scaledBurstWeight, scaledWaitWeight);
+            store.setDynamicPriority(slot, (double) dynamicPriority / Scheduler.WEIGHT_SCALE);
+        }
+
+        // Initial wait before first execution, on top of the waits between preemptions and restarts
+        @Override
+        int waitingTime(ProcessStore store, int slot) {
+            return store.waitingTime(slot) + store.firstStartTime(slot) - store.arrivalTime(slot);
+        }
+    }
+
+    // Round Robin Priority Scheduling: the highest non-empty priority level runs, and the processes of that level
+    // take turns in time slices of the quantum, in the order they entered the ready queue. A process arriving at a
+    // higher level takes the CPU at once; one at the same level waits for the end of the running slice. A process
+    // that is preempted goes to the back of its level. With nothing else waiting at its level, the running process
+    // starts a new slice every quantum, so a process that arrives later waits at most until the current one ends.
+    // The ready queue is RunQueues, so priorities from RunQueues.LEVELS - 1 up share the last level.
+    static final class PriorityRoundRobinPolicy extends SchedulingPolicy {
+
+        final int quantum;
+
+        PriorityRoundRobinPolicy(int quantum) {
+            if (quantum < 1) {
+                throw new IllegalArgumentException("Quantum must be at least 1: " + quantum);
+            }
+            this.quantum = quantum;
+        }
+
+        @Override
+        void enqueued(ProcessStore store, int slot, int time) {
+            // RunQueues keeps entry order within a level, so no keys are needed
+        }
+
+        @Override
+        ReadyQueue readyQueue(ProcessStore store, int capacity) {
+            return new RunQueues(store, capacity);
+        }
+
+        @Override
+        void dispatched(ProcessStore store, int slot, int time) {
+            store.setSliceStart(slot, time);
+        }
+
+        @Override
+        boolean preempts(ProcessStore store, int waiting, int running, int time) {
+            int waitingLevel = RunQueues.level(store.priority(waiting)), runningLevel = RunQueues.level(store.priority(running));
+            if (waitingLevel != runningLevel) {
+                return waitingLevel < runningLevel;
+            }
+            int elapsed = time - store.sliceStart(running);
+            return elapsed > 0 && elapsed % quantum == 0; // A slice ends
+        }
+
+        @Override
+        int runLimit(ProcessStore store, int running, int waiting, int time, int until) {
+            if (RunQueues.level(store.priority(waiting)) != RunQueues.level(store.priority(running))) {
+                return until; // Only lower levels wait
+            }
+            int sliceEnd = time + quantum - (time - store.sliceStart(running)) % quantum;
+            return Math.min(until, sliceEnd);
+        }
+
+        @Override
+        double[] parameters() {
+            return new double[]{quantum};
+        }
+    }
+
+    // Event-driven simulation of one CPU under a SchedulingPolicy. Processes are submitted in
+    // arrival order and each completion is reported to a listener as soon as it happens, so a run can follow an
+    // open-ended stream: only processes that have arrived and not yet completed are held, in recycled slots of a
+    // ProcessStore. Batch runs (Scheduler.schedule) submit a whole workload the same way.
+    static final class SchedulingEngine {
+
+        // Receives each process as it completes. The slot is reused once the call returns.
+        interface CompletionListener {
+            void completed(ProcessStore store, int slot);
+        }
+
+        private final SchedulingPolicy policy;
+        private final boolean preemptive;
+        private final ProcessStore store;
+        private final ReadyQueue readyQueue;
+        private final SegmentSink gantt; // Null when no Gantt chart is kept
+        private final CompletionListener listener;
+        private int time;
+        private int running = -1; // Slot of the process holding the CPU between events; not in the ready queue
+        private int active; // Processes submitted and not yet completed
+        private int lastArrival = Integer.MIN_VALUE;
+        private final Metrics metrics;
+        private int lastDispatched = -1, lastBusyUntil = -1; // Instrumentation only
+
+        private final PreemptionLog preemptionLog;
+
+        SchedulingEngine(int algorithm, SegmentSink gantt, int expectedActive, boolean offHeap, CompletionListener listener) {
+            this(algorithm, Scheduler.BURST_WEIGHT, Scheduler.WAIT_WEIGHT, gantt, expectedActive, offHeap, listener);
+        }
+
+        SchedulingEngine(int algorithm, double burstWeight, double waitWeight, SegmentSink gantt, int expectedActive,
+                         boolean offHeap, CompletionListener listener) {
+            this(Scheduler.policy(algorithm, burstWeight, waitWeight), gantt, expectedActive, offHeap, listener);
+        }
+
+        SchedulingEngine(SchedulingPolicy policy, SegmentSink gantt, int expectedActive, boolean offHeap,
+                         CompletionListener listener) {
+            this.policy = policy;
+            this.preemptive = policy.preemptive();
+            this.gantt = gantt;
+            this.listener = listener;
+            this.store = new ProcessStore(expectedActive, offHeap);
+            this.readyQueue = policy.readyQueue(store, expectedActive);
+            this.preemptionLog = new PreemptionLog();
+            this.metrics = Metrics.ENABLED ? new Metrics() : null;
+        }
+
+        // Copy of another engine's state that continues on its own, reporting to the given Gantt chart and listener
+        SchedulingEngine(SchedulingEngine source, SegmentSink gantt, CompletionListener listener) {
+            this.policy = source.policy;
+            this.preemptive = source.preemptive;
+            this.gantt = gantt;
+            this.listener = listener;
+            this.store = source.store.copy();
+            this.readyQueue = source.readyQueue.copy(store);
+            time = source.time;
+            running = source.running;
+            active = source.active;
+            lastArrival = source.lastArrival;
+            if (source.metrics != null) {
+                metrics = new Metrics();
+                metrics.add(source.metrics);
+            } else {
+                metrics = null;
+            }
+            lastDispatched = source.lastDispatched;
+            lastBusyUntil = source.lastBusyUntil;
+            preemptionLog = source.preemptionLog.copy();
+        }
+
+        // Current simulated time
+        int time() {
+            return time;
+        }
+
+        // Processes submitted and not yet completed; this is all the engine keeps
+        int activeCount() {
+            return active;
+        }
+
+        // Counters so far, or null unless Metrics.ENABLED
+        Metrics metrics() {
+            return metrics;
+        }
+
+        // Adds a process arriving at the given time. Everything that happens before that time is simulated first,
+        // so processes must be submitted in arrival order. The order breaks ties between otherwise equal processes.
+        void submit(int pid, int arrivalTime, int burstTime, int priority, int order) {
+            if (arrivalTime < lastArrival) {
+                throw new IllegalArgumentException("Process " + pid + " arrives at " + arrivalTime
+                        + ", before the previous process (" + lastArrival + ")");
+            }
+            lastArrival = arrivalTime;
+            advance(arrivalTime, false);
+            int slot = store.allocate(pid, arrivalTime, burstTime, priority, order);
+            policy.enqueued(store, slot, time);
+            readyQueue.add(slot);
+            active++;
+        }
+
+        // Runs every submitted process to completion
+        void finish() {
+            advance(Integer.MAX_VALUE, true);
+        }
+
+        // Simulates up to the given time (the next arrival), or until nothing is left to run when draining.
+        // Event-driven: the choice of process can only change when something arrives or completes,
+        // so each step jumps straight to the next of those events instead of stepping one unit.
+        private void advance(int limit, boolean draining) {
+            while (time < limit) {
+                Scheduler.checkCancelled();
+                if (running == -1 && readyQueue.isEmpty()) {
+                    if (!draining) {
+                        if (gantt != null) {
+                            gantt.add(-1, time, limit); // IDLE until the next arrival
+                        }
+                        if (Metrics.ENABLED) {
+                            metrics.idleTime += limit - time;
+                        }
+                        time = limit;
+                    }
+                    return;
+                }
+                step(limit);
+                if (Metrics.ENABLED) {
+                    lastBusyUntil = time;
+                }
+            }
+        }
+
+        // Instrumentation: called once the next process is chosen, with the time the choice took
+        private void dispatching(int slot, long selectStart) {
+            metrics.selectNanos += System.nanoTime() - selectStart;
+            if (slot != lastDispatched) {
+                // The previous process is still in the store only if it was preempted
+                metrics.dispatched(store.pid(slot), time, active - 1,
+                        lastDispatched != -1 ? store.pid(lastDispatched) : -1, lastBusyUntil == time);
+                lastDispatched = slot;
+            }
+        }
+
+        // Gives the CPU to the process the policy picks and runs it until it completes, the next arrival (for a
+        // preemptive policy), or the policy's run limit, whichever comes first
+        private void step(int nextArrival) {
+            long selectStart = Metrics.ENABLED ? System.nanoTime() : 0;
+            int nextProcess = running;
+            if (nextProcess == -1) {
+                nextProcess = readyQueue.poll();
+            } else if (preemptive && !readyQueue.isEmpty() && policy.preempts(store, readyQueue.peek(), running, time)) {
+                nextProcess = readyQueue.peek();
+            }
+            if (Metrics.ENABLED) {
+                dispatching(nextProcess, selectStart);
+            }
+
+            // Preemption: the running process goes back to the ready queue in place of the one taking over
+            if (running != -1 && running != nextProcess) {
+                preemptionLog.open(store, running, time);
+                policy.enqueued(store, running, time);
+                readyQueue.replaceHead(running);
+                if (store.firstStartTime(nextProcess) != -1) {
+                    preemptionLog.close(store, nextProcess, time); // This process is restarting
+                }
+            }
+
+            // Record first start time if it's the first time this process runs
+            if (store.firstStartTime(nextProcess) == -1) {
+                store.setFirstStartTime(nextProcess, time);
+            }
+            if (nextProcess != running) {
+                policy.dispatched(store, nextProcess, time);
+            }
+
+            running = nextProcess;
+
+            int remaining = store.remainingTime(running);
+            int runUntil = time + remaining;
+            if (preemptive) {
+                runUntil = Math.min(runUntil, nextArrival);
+                if (!readyQueue.isEmpty()) {
+                    runUntil = policy.runLimit(store, running, readyQueue.peek(), time, runUntil);
+                }
+            }
+            if (gantt != null) {
+                gantt.add(store.pid(running), time, runUntil);
+            }
+            remaining -= runUntil - time; // Decrement remaining burst time
+            store.setRemainingTime(running, remaining);
+            time = runUntil;
+
+            // If the current process has completed execution
+            if (remaining == 0) {
+                int completed = running;
+                running = -1; // No process is currently running
+                complete(completed);
+            }
+        }
+
+        private void complete(int slot) {
+            store.setCompletionTime(slot, time);
+            policy.completed(store, slot, time);
+            store.setWaitingTime(slot, policy.waitingTime(store, slot));
+            preemptionLog.discard(store, slot);
+            active--;
+            if (Metrics.ENABLED && slot == lastDispatched) {
+                lastDispatched = -1;
+            }
+            listener.completed(store, slot);
+            store.free(slot);
+        }
+    }
+
+    // Preemption moments not yet paired with a restart, as per-process FIFO lists threaded through shared arrays;
+    // head and tail live in the store. Restart moments are never stored: each one is paired with the oldest open
+    // preemption at once, and the gap is added to the process's waiting time, where SchedulingPolicy.waitingTime
+    // finds it. Both SchedulingEngine and MultiCoreScheduler keep one.
+    static final class PreemptionLog {
+
+        private int[] moments = new int[16], nextMoment = new int[16];
+        private int freeMoment = -1, usedMoments;
+
+        PreemptionLog copy() {
+            PreemptionLog copy = new PreemptionLog();
+            copy.moments = moments.clone();
+            copy.nextMoment = nextMoment.clone();
+            copy.freeMoment = freeMoment;
+            copy.usedMoments = usedMoments;
+            return copy;
+        }
+
+        // Appends a preemption moment to the process's open list
+        void open(ProcessStore store, int slot, int moment) {
+            int node = freeMoment;
+            if (node != -1) {
+                freeMoment = nextMoment[node];
+            } else {
+                if (usedMoments == moments.length) {
+                    moments = Arrays.copyOf(moments, usedMoments * 2);
+                    nextMoment = Arrays.copyOf(nextMoment, usedMoments * 2);
+                }
+                node = usedMoments++;
+            }
+            moments[node] = moment;
+            nextMoment[node] = -1;
+            int tail = store.preemptionTail(slot);
+            if (tail == -1) {
+                store.setPreemptionHead(slot, node);
+            } else {
+                nextMoment[tail] = node;
+            }
+            store.setPreemptionTail(slot, node);
+        }
+
+        // Pairs a restart with the oldest open preemption and adds the time in between to the waiting time
+        void close(ProcessStore store, int slot, int restart) {
+            int head = store.preemptionHead(slot);
+            if (head == -1) {
+                return;
+            }
+            store.setWaitingTime(slot, store.waitingTime(slot) + restart - moments[head]);
+            int next = nextMoment[head];
+            store.setPreemptionHead(slot, next);
+            if (next == -1) {
+                store.setPreemptionTail(slot, -1);
+            }
+            nextMoment[head] = freeMoment;
+            freeMoment = head;
+        }
+
+        // Drops the process's open preemptions once it completes; those never paired with a restart do not count
+        void discard(ProcessStore store, int slot) {
+            while (store.preemptionHead(slot) != -1) {
+                int head = store.preemptionHead(slot);
+                store.setPreemptionHead(slot, nextMoment[head]);
+                nextMoment[head] = freeMoment;
+                freeMoment = head;
+            }
+        }
+    }
+
+    // Scheduler instrumentation: per-run counters, phase timings and JFR events. Everything sits behind ENABLED, a
+    // static final read once from the "scheduler.metrics" system property, so when it is off the JIT drops the checks
+    // and nothing is counted, timed or allocated. JFR events are only committed while a recording is running
+    // (e.g. -XX:StartFlightRecording) and are listed under "Scheduler".
+    static final class Metrics {
+
+        static final boolean ENABLED = Boolean.getBoolean("scheduler.metrics");
+
+        static final int PARSE = 0, SIMULATE = 1, RENDER = 2, EXPORT = 3;
+        static final String[] PHASES = {"parse", "simulate", "render", "export"};
+        private static final java.util.concurrent.atomic.AtomicLongArray PHASE_NANOS = new java.util.concurrent.atomic.AtomicLongArray(PHASES.length);
+        private static final java.util.concurrent.atomic.AtomicLongArray PHASE_COUNTS = new java.util.concurrent.atomic.AtomicLongArray(PHASES.length);
+
+        long dispatches; // Times a CPU started running a different process
+        long preemptions; // Dispatches that sent an unfinished process back to the ready queue
+        long contextSwitches; // Dispatches with no idle time since the previous process stopped
+        long idleTime; // Time units with nothing to run, summed over CPUs
+        long selectNanos; // Wall-clock time spent choosing the next process
+        long queueSamples, queueLengthTotal; // Ready-queue length sampled at every dispatch
+        int maxQueueLength;
+
+        // A process is about to run. queueLength counts the processes left waiting, preemptedPid is the process
+        // it displaces or -1.
+        void dispatched(int pid, int time, int queueLength, int preemptedPid, boolean contextSwitch) {
+            dispatches++;
+            if (contextSwitch) {
+                contextSwitches++;
+            }
+            queueSamples++;
+            queueLengthTotal += queueLength;
+            maxQueueLength = Math.max(maxQueueLength, queueLength);
+            DispatchEvent dispatch = new DispatchEvent();
+            if (dispatch.shouldCommit()) {
+                dispatch.pid = pid;
+                dispatch.time = time;
+                dispatch.commit();
+            }
+            QueueLengthEvent sample = new QueueLengthEvent();
+            if (sample.shouldCommit()) {
+                sample.time = time;
+                sample.length = queueLength;
+                sample.commit();
+            }
+            if (preemptedPid != -1) {
+                preemptions++;
+                PreemptionEvent preemption = new PreemptionEvent();
+                if (preemption.shouldCommit()) {
+                    preemption.pid = preemptedPid;
+                    preemption.by = pid;
+                    preemption.time = time;
+                    preemption.commit();
+                }
+            }
+        }
+
+        double averageQueueLength() {
+            return queueSamples == 0 ? 0 : (double) queueLengthTotal / queueSamples;
+        }
+
+        void add(Metrics other) {
+            dispatches += other.dispatches;
+            preemptions += other.preemptions;
+            contextSwitches += other.contextSwitches;
+            idleTime += other.idleTime;
+            selectNanos += other.selectNanos;
+            queueSamples += other.queueSamples;
+            queueLengthTotal += other.queueLengthTotal;
+            maxQueueLength = Math.max(maxQueueLength, other.maxQueueLength);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "dispatches %d, preemptions %d, context switches %d, idle %d, queue avg %.2f max %d, select %.3f ms",
+                    dispatches, preemptions, contextSwitches, idleTime, averageQueueLength(), maxQueueLength, selectNanos / 1e6);
+        }
+
+        // Starts timing a phase; returns null when instrumentation is off
+        static PhaseEvent beginPhase(int phase) {
+            if (!ENABLED) {
+                return null;
+            }
+            PhaseEvent event = new PhaseEvent();
+            event.phase = PHASES[phase];
+            event.index = phase;
+            event.startNanos = System.nanoTime();
+            event.begin();
+            return event;
+        }
+
+        static void endPhase(PhaseEvent event) {
+            if (event == null) {
+                return;
+            }
+            event.end();
+            PHASE_NANOS.addAndGet(event.index, System.nanoTime() - event.startNanos);
+            PHASE_COUNTS.incrementAndGet(event.index);
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+
+        // Total time and count of every phase so far, one line each
+        static String phaseSummary() {
+            StringBuilder summary = new StringBuilder();
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                summary.append(String.format(Locale.ROOT, "%s: %d x, %.3f ms%n",
+                        PHASES[phase], PHASE_COUNTS.get(phase), PHASE_NANOS.get(phase) / 1e6));
+            }
+            return summary.toString();
+        }
+
+        @jdk.jfr.Name("main.Dispatch")
+        @jdk.jfr.Label("Dispatch")
+        @jdk.jfr.Category("Scheduler")
+        @jdk.jfr.StackTrace(false)
+        static final class DispatchEvent extends jdk.jfr.Event {
+            @jdk.jfr.Label("PID")
+            int pid;
+            @jdk.jfr.Label("Simulated Time")
+            int time;
+        }
+
+        @jdk.jfr.Name("main.Preemption")
+        @jdk.jfr.Label("Preemption")
+        @jdk.jfr.Category("Scheduler")
+        @jdk.jfr.StackTrace(false)
+        static final class PreemptionEvent extends jdk.jfr.Event {
+            @jdk.jfr.Label("Preempted PID")
+            int pid;
+            @jdk.jfr.Label("Preempting PID")
+            int by;
+            @jdk.jfr.Label("Simulated Time")
+            int time;
+        }
+
+        @jdk.jfr.Name("main.QueueLength")
+        @jdk.jfr.Label("Ready Queue Length")
+        @jdk.jfr.Category("Scheduler")
+        @jdk.jfr.StackTrace(false)
+        static final class QueueLengthEvent extends jdk.jfr.Event {
+            @jdk.jfr.Label("Simulated Time")
+            int time;
+            @jdk.jfr.Label("Length")
+            int length;
+        }
+
+        @jdk.jfr.Name("main.Phase")
+        @jdk.jfr.Label("Phase")
+        @jdk.jfr.Category("Scheduler")
+        static final class PhaseEvent extends jdk.jfr.Event {
+            @jdk.jfr.Label("Phase")
+            String phase;
+            transient int index;
+            transient long startNanos;
+        }
+    }
+
+    // Fixed-size histogram of non-negative values: exact below 32, and within about 3% above that, using
+    // 32 buckets per power of two. Memory does not depend on how many values are recorded.
+    static final class Histogram {
+
+        private static final int SUB_BUCKETS = 32, SUB_BUCKET_BITS = 5;
+
+        private final long[] counts = new long[SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS];
+        private long count, sum, max;
+
+        void record(long value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("Negative value: " + value);
+            }
+            counts[bucket(value)]++;
+            count++;
+            sum += value;
+            max = Math.max(max, value);
+        }
+
+        // Adds the values recorded by another histogram
+        void add(Histogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            sum += other.sum;
+            max = Math.max(max, other.max);
+        }
+
+        long count() {
+            return count;
+        }
+
+        double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        long max() {
+            return max;
+        }
+
+        // Upper bound of the bucket that holds the given percentile, capped at the largest recorded value. Never
+        // below the true percentile: exact below 32, and above that at most 1/32 (about 3%) higher.
+        long percentile(double percent) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestInBucket(i), max);
+                }
+            }
+            return max;
+        }
+
+        private static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value); // At least SUB_BUCKET_BITS
+            int shift = exponent - SUB_BUCKET_BITS;
+            return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+        }
+
+        private static long highestInBucket(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+            long low = (long) (SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+            return low + (1L << shift) - 1;
+        }
+    }
+
+    // Running averages and percentiles of waiting and turnaround times over completed processes, in constant memory
+    static final class StreamStats implements SchedulingEngine.CompletionListener {
+
+        private final Histogram waitingTimes = new Histogram();
+        private final Histogram turnaroundTimes = new Histogram();
+
+        @Override
+        public void completed(ProcessStore store, int slot) {
+            waitingTimes.record(store.waitingTime(slot));
+            turnaroundTimes.record(store.completionTime(slot) - store.arrivalTime(slot));
+        }
+
+        long count() {
+            return waitingTimes.count();
+        }
+
+        double averageWaitingTime() {
+            return waitingTimes.mean();
+        }
+
+        double averageTurnaroundTime() {
+            return turnaroundTimes.mean();
+        }
+
+        Histogram waitingTimes() {
+            return waitingTimes;
+        }
+
+        Histogram turnaroundTimes() {
+            return turnaroundTimes;
+        }
+    }
+
+    // Waiting processes of one CPU, as store slots. The policy chooses the implementation; the head is the
+    // process it would run next.
+    interface ReadyQueue {
+
+        boolean isEmpty();
+
+        int size();
+
+        int peek();
+
+        void add(int slot);
+
+        int poll();
+
+        // Removes and returns the head and adds slot
+        int replaceHead(int slot);
+
+        // Copy with the same entries, for a copy of the store they refer to
+        ReadyQueue copy(ProcessStore store);
+    }
+
+    // Binary min-heap of process slots in SchedulingPolicy.before order, for ready queues that would otherwise box
+    // every entry
+    static final class IntHeap implements ReadyQueue {
+
+        private final ProcessStore store;
+        private int[] heap;
+        private int size;
+
+        IntHeap(ProcessStore store, int capacity) {
+            this.store = store;
+            heap = new int[Math.max(1, capacity)];
+        }
+
+        // True if a must leave the heap before b
+        boolean before(int a, int b) {
+            return SchedulingPolicy.before(store, a, b);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int peek() {
+            return heap[0];
+        }
+
+        // Keeps the layout of the entries
+        @Override
+        public IntHeap copy(ProcessStore store) {
+            IntHeap copy = new IntHeap(store, heap.length);
+            System.arraycopy(heap, 0, copy.heap, 0, size);
+            copy.size = size;
+            return copy;
+        }
+
+        @Override
+        public void add(int value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(value, heap[parent])) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        @Override
+        public int poll() {
+            return replaceHead(heap[--size]);
+        }
+
+        // In one pass: cheaper than poll() then add() when a preempted process goes back as the process ahead of
+        // it takes over
+        @Override
+        public int replaceHead(int value) {
+            int result = heap[0];
+            int i = 0, half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!before(heap[child], value)) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = value;
+            return result;
+        }
+    }
+
+    // Ready queue of Round Robin Priority Scheduling: one FIFO list per priority level and a bitmap of the non-empty
+    // levels, so the head is the first process of the level at the lowest set bit and every operation takes constant
+    // time. The lists are threaded through next[], indexed by slot. Priorities from LEVELS - 1 up share the last level.
+    static final class RunQueues implements ReadyQueue {
+
+        static final int LEVELS = Long.SIZE;
+
+        private final ProcessStore store;
+        private final int[] heads = new int[LEVELS], tails = new int[LEVELS];
+        private int[] next;
+        private long nonEmpty; // Bit l is set while level l has a process
+        private int size;
+
+        RunQueues(ProcessStore store, int capacity) {
+            this.store = store;
+            next = new int[Math.max(1, capacity)];
+        }
+
+        static int level(int priority) {
+            return Math.min(priority, LEVELS - 1);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int peek() {
+            return heads[Long.numberOfTrailingZeros(nonEmpty)];
+        }
+
+        @Override
+        public void add(int slot) {
+            if (slot >= next.length) {
+                next = Arrays.copyOf(next, Math.max(slot + 1, next.length * 2));
+            }
+            int level = level(store.priority(slot));
+            if ((nonEmpty & (1L << level)) == 0) {
+                heads[level] = slot;
+                nonEmpty |= 1L << level;
+            } else {
+                next[tails[level]] = slot;
+            }
+            tails[level] = slot;
+            size++;
+        }
+
+        @Override
+        public int poll() {
+            int level = Long.numberOfTrailingZeros(nonEmpty);
+            int slot = heads[level];
+            if (slot == tails[level]) {
+                nonEmpty &= ~(1L << level);
+            } else {
+                heads[level] = next[slot];
+            }
+            size--;
+            return slot;
+        }
+
+        // The slot goes to the back of its level, behind the head if they share one
+        @Override
+        public int replaceHead(int slot) {
+            int head = poll();
+            add(slot);
+            return head;
+        }
+
+        @Override
+        public RunQueues copy(ProcessStore store) {
+            RunQueues copy = new RunQueues(store, next.length);
+            System.arraycopy(heads, 0, copy.heads, 0, LEVELS);
+            System.arraycopy(tails, 0, copy.tails, 0, LEVELS);
+            System.arraycopy(next, 0, copy.next, 0, next.length);
+            copy.nonEmpty = nonEmpty;
+            copy.size = size;
+            return copy;
+        }
+    }
+
+    // Receives a Gantt chart as it is produced, one run at a time: process pid (-1 for IDLE) ran from start to end.
+    // A Timeline keeps the runs; a SummaryCollector only counts them.
+    interface SegmentSink {
+        void add(int pid, int start, int end);
+    }
+
+    // Read access to a Gantt chart as consecutive segments: process pid (-1 for IDLE) ran from start to end.
+    // What the renderer draws from, whether the segments are on the heap or in a mapped trace file.
+    abstract static class SegmentSource {
+
+        abstract int size();
+
+        abstract int pid(int i);
+
+        abstract int start(int i);
+
+        abstract int end(int i);
+
+        boolean isEmpty() {
+            return size() == 0;
+        }
+
+        // Total simulated time covered by the chart
+        int length() {
+            return isEmpty() ? 0 : end(size() - 1);
+        }
+
+        // Index of the segment covering the given time (binary search; clamped to the first/last segment)
+        int indexAt(long time) {
+            int lo = 0, hi = size() - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (start(mid) <= time) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return lo;
+        }
+    }
+
+    // Gantt chart stored as run-length encoded segments: process pid (-1 for IDLE) ran from start to end.
+    // Memory grows with the number of context switches rather than with the simulated time.
+    static class Timeline extends SegmentSource implements SegmentSink {
+
+        private int[] pids, starts, ends;
+        private int size;
+
+        public Timeline() {
+            pids = new int[16];
+            starts = new int[16];
+            ends = new int[16];
+        }
+
+        // Appends a run, merging it into the previous segment when the same pid continues
+        @Override
+        public void add(int pid, int start, int end) {
+            if (end <= start) {
+                return;
+            }
+            if (size > 0 && pids[size - 1] == pid && ends[size - 1] == start) {
+                ends[size - 1] = end;
+                return;
+            }
+            if (size == pids.length) {
+                int capacity = size * 2;
+                pids = Arrays.copyOf(pids, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+            }
+            pids[size] = pid;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        // Copy of the first segments with the last one ending at lastEnd, as the chart stood at an earlier point of the run
+        Timeline prefix(int segments, int lastEnd) {
+            Timeline copy = new Timeline();
+            int capacity = Math.max(16, segments);
+            copy.pids = Arrays.copyOf(pids, capacity);
+            copy.starts = Arrays.copyOf(starts, capacity);
+            copy.ends = Arrays.copyOf(ends, capacity);
+            copy.size = segments;
+            if (segments > 0) {
+                copy.ends[segments - 1] = lastEnd;
+            }
+            return copy;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        int pid(int i) {
+            return pids[i];
+        }
+
+        @Override
+        int start(int i) {
+            return starts[i];
+        }
+
+        @Override
+        int end(int i) {
+            return ends[i];
+        }
+
+        @Override
+        int length() {
+            return size == 0 ? 0 : ends[size - 1];
+        }
+
+        @Override
+        int indexAt(long time) {
+            int lo = 0, hi = size - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (starts[mid] <= time) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return lo;
+        }
+    }
+
+    // Immutable input of a scheduling run: one entry per process, in table order
+    static final class Workload {
+
+        private final int[] pids, arrivalTimes, burstTimes, priorities;
+        private long fingerprint; // Content hash, computed on first use (0 = not yet computed)
+
+        public Workload(int[] pids, int[] arrivalTimes, int[] burstTimes, int[] priorities) {
+            if (arrivalTimes.length != pids.length || burstTimes.length != pids.length || priorities.length != pids.length) {
+                throw new IllegalArgumentException("Workload columns must have the same length");
+            }
+            this.pids = pids.clone();
+            this.arrivalTimes = arrivalTimes.clone();
+            this.burstTimes = burstTimes.clone();
+            this.priorities = priorities.clone();
+        }
+
+        int size() {
+            return pids.length;
+        }
+
+        int pid(int i) {
+            return pids[i];
+        }
+
+        int arrivalTime(int i) {
+            return arrivalTimes[i];
+        }
+
+        int burstTime(int i) {
+            return burstTimes[i];
+        }
+
+        int priority(int i) {
+            return priorities[i];
+        }
+
+        // Earliest arrival time, before or after the edit, of a row that differs in the other workload: runs of the
+        // two are the same up to that time. Integer.MAX_VALUE if nothing differs, Integer.MIN_VALUE if the sizes do.
+        int firstChangeTime(Workload other) {
+            if (other.pids.length != pids.length) {
+                return Integer.MIN_VALUE;
+            }
+            int time = Integer.MAX_VALUE;
+            for (int i = 0; i < pids.length; i++) {
+                if (pids[i] != other.pids[i] || arrivalTimes[i] != other.arrivalTimes[i]
+                        || burstTimes[i] != other.burstTimes[i] || priorities[i] != other.priorities[i]) {
+                    time = Math.min(time, Math.min(arrivalTimes[i], other.arrivalTimes[i]));
+                }
+            }
+            return time;
+        }
+
+        // 64-bit hash of all columns, used to key cached results
+        long fingerprint() {
+            long hash = fingerprint;
+            if (hash == 0) {
+                long h = 0x9E3779B97F4A7C15L;
+                for (int i = 0; i < pids.length; i++) {
+                    h = (h ^ pids[i]) * 0x100000001B3L;
+                    h = (h ^ arrivalTimes[i]) * 0x100000001B3L;
+                    h = (h ^ burstTimes[i]) * 0x100000001B3L;
+                    h = (h ^ priorities[i]) * 0x100000001B3L;
+                }
+                h ^= h >>> 29;
+                hash = h == 0 ? 1 : h;
+                fingerprint = hash;
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Workload)) {
+                return false;
+            }
+            Workload other = (Workload) o;
+            return fingerprint() == other.fingerprint()
+                    && Arrays.equals(pids, other.pids)
+                    && Arrays.equals(arrivalTimes, other.arrivalTimes)
+                    && Arrays.equals(burstTimes, other.burstTimes)
+                    && Arrays.equals(priorities, other.priorities);
+        }
+
+        @Override
+        public int hashCode() {
+            long hash = fingerprint();
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+
+    // Outcome of one scheduling run. Per-process values are indexed like the workload.
+    // Nothing here is modified after the run, so results can be shared between threads.
+    static final class ScheduleResult {
+
+        final int algorithm; // Index into Scheduler.ALGORITHM_NAMES
+        final Workload workload;
+        final Timeline timeline; // Gantt chart of the first CPU
+        private final Timeline[] lanes; // Gantt chart of every CPU
+        private final long[] busyTimes; // Non-idle time of every CPU
+        private final int migrations;
+        private final int[] completionTimes, waitingTimes, turnaroundTimes, firstStartTimes;
+        private final double[] dynamicPriorities; // Only for Dynamic Priority Boost, otherwise null
+        final Metrics metrics; // Null unless Metrics.ENABLED
+        private volatile ScheduleSummary summary;
+
+        ScheduleResult(int algorithm, Workload workload, Timeline timeline, int[] completionTimes, int[] waitingTimes,
+                       int[] turnaroundTimes, int[] firstStartTimes, double[] dynamicPriorities) {
+            this(algorithm, workload, new Timeline[]{timeline}, 0,
+                    completionTimes, waitingTimes, turnaroundTimes, firstStartTimes, dynamicPriorities, null);
+        }
+
+        ScheduleResult(int algorithm, Workload workload, Timeline[] lanes, int migrations, int[] completionTimes,
+                       int[] waitingTimes, int[] turnaroundTimes, int[] firstStartTimes, double[] dynamicPriorities,
+                       Metrics metrics) {
+            this.algorithm = algorithm;
+            this.metrics = metrics;
+            this.workload = workload;
+            this.timeline = lanes[0];
+            this.lanes = lanes;
+            this.migrations = migrations;
+            this.completionTimes = completionTimes;
+            this.waitingTimes = waitingTimes;
+            this.turnaroundTimes = turnaroundTimes;
+            this.firstStartTimes = firstStartTimes;
+            this.dynamicPriorities = dynamicPriorities;
+            busyTimes = new long[lanes.length];
+            for (int c = 0; c < lanes.length; c++) {
+                Timeline lane = lanes[c];
+                for (int s = 0; s < lane.size(); s++) {
+                    if (lane.pid(s) != -1) {
+                        busyTimes[c] += lane.end(s) - lane.start(s);
+                    }
+                }
+            }
+        }
+
+        int cpuCount() {
+            return lanes.length;
+        }
+
+        Timeline lane(int cpu) {
+            return lanes[cpu];
+        }
+
+        // Processes moved to another CPU's queue by work stealing
+        int migrations() {
+            return migrations;
+        }
+
+        // Time from 0 until the last CPU goes quiet
+        int makespan() {
+            int makespan = 0;
+            for (Timeline lane : lanes) {
+                makespan = Math.max(makespan, lane.length());
+            }
+            return makespan;
+        }
+
+        long busyTime(int cpu) {
+            return busyTimes[cpu];
+        }
+
+        // Fraction of the makespan the CPU spent running processes
+        double utilization(int cpu) {
+            int makespan = makespan();
+            return makespan == 0 ? 0 : (double) busyTimes[cpu] / makespan;
+        }
+
+        // Average utilization over all CPUs
+        double utilization() {
+            long busy = 0;
+            for (long busyTime : busyTimes) {
+                busy += busyTime;
+            }
+            int makespan = makespan();
+            return makespan == 0 ? 0 : (double) busy / ((double) makespan * lanes.length);
+        }
+
+        // How much more the busiest CPU worked than the average CPU: 0 when the load is perfectly balanced
+        double loadImbalance() {
+            long busy = 0, max = 0;
+            for (long busyTime : busyTimes) {
+                busy += busyTime;
+                max = Math.max(max, busyTime);
+            }
+            return busy == 0 ? 0 : (double) max * lanes.length / busy - 1;
+        }
+
+        int completionTime(int i) {
+            return completionTimes[i];
+        }
+
+        int waitingTime(int i) {
+            return waitingTimes[i];
+        }
+
+        int turnaroundTime(int i) {
+            return turnaroundTimes[i];
+        }
+
+        int firstStartTime(int i) {
+            return firstStartTimes[i];
+        }
+
+        boolean hasDynamicPriorities() {
+            return dynamicPriorities != null;
+        }
+
+        double dynamicPriority(int i) {
+            return dynamicPriorities[i];
+        }
+
+        double averageWaitingTime() {
+            double total = 0;
+            for (int waitingTime : waitingTimes) {
+                total += waitingTime;
+            }
+            return waitingTimes.length == 0 ? 0 : total / waitingTimes.length;
+        }
+
+        double averageTurnaroundTime() {
+            double total = 0;
+            for (int turnaroundTime : turnaroundTimes) {
+                total += turnaroundTime;
+            }
+            return turnaroundTimes.length == 0 ? 0 : total / turnaroundTimes.length;
+        }
+
+        // Response time, throughput, utilization, context switches and waiting percentiles; computed on first use
+        ScheduleSummary summary() {
+            ScheduleSummary result = summary;
+            if (result == null) {
+                result = new ScheduleSummary(this); // A race only computes the same summary twice
+                summary = result;
+            }
+            return result;
+        }
+    }
+
+    // Running totals behind a ScheduleSummary, in constant memory. Fed from a finished result, or directly by a
+    // SchedulingEngine as its completion listener and Gantt sink (Scheduler.summarize).
+    static final class SummaryCollector implements SchedulingEngine.CompletionListener, SegmentSink {
+
+        final Histogram waitingTimes = new Histogram();
+        long totalTurnaround, totalResponse, busyTime, contextSwitches;
+        int makespan;
+        private int lastPid = -1, lastEnd = -1; // Previous run of the current lane
+
+        @Override
+        public void completed(ProcessStore store, int slot) {
+            record(store.waitingTime(slot), store.completionTime(slot) - store.arrivalTime(slot),
+                    store.firstStartTime(slot) - store.arrivalTime(slot));
+        }
+
+        void record(int waitingTime, int turnaroundTime, int responseTime) {
+            waitingTimes.record(waitingTime);
+            totalTurnaround += turnaroundTime;
+            totalResponse += responseTime;
+        }
+
+        // Counts a run the way a Timeline stores it: a busy run right after another busy run is a context switch
+        // unless the same process simply continues, in which case the Timeline merges the two
+        @Override
+        public void add(int pid, int start, int end) {
+            if (end <= start) {
+                return;
+            }
+            if (pid != -1) {
+                busyTime += end - start;
+                if (lastPid != -1 && (pid != lastPid || start != lastEnd)) {
+                    contextSwitches++;
+                }
+            }
+            lastPid = pid;
+            lastEnd = end;
+            makespan = Math.max(makespan, end);
+        }
+
+        // Starts the next CPU's lane
+        void nextLane() {
+            lastPid = -1;
+            lastEnd = -1;
+        }
+    }
+
+    // Extended statistics of a result. A full result is gathered in one pass over the processes and one over
+    // the Gantt lanes; Scheduler.summarize collects the same totals during the run.
+    // Waiting-time percentiles come from a fixed-size Histogram instead of a sorted copy of the results.
+    static final class ScheduleSummary {
+
+        final int processes;
+        final double averageWaitingTime, averageTurnaroundTime;
+        final double averageResponseTime; // Arrival until first run
+        final double throughput; // Processes completed per time unit, over the makespan
+        final double utilization; // Busy share of the makespan, averaged over CPUs
+        final long contextSwitches; // One process handing the CPU straight to another
+        final long waitingP50, waitingP95, waitingP99, maxWaitingTime;
+
+        ScheduleSummary(ScheduleResult result) {
+            this(collect(result), result.cpuCount());
+        }
+
+        ScheduleSummary(SummaryCollector totals, int cpus) {
+            Histogram waiting = totals.waitingTimes;
+            long n = waiting.count();
+            int makespan = totals.makespan;
+            processes = (int) n;
+            averageWaitingTime = waiting.mean();
+            averageTurnaroundTime = n == 0 ? 0 : (double) totals.totalTurnaround / n;
+            averageResponseTime = n == 0 ? 0 : (double) totals.totalResponse / n;
+            throughput = makespan == 0 ? 0 : (double) n / makespan;
+            utilization = makespan == 0 ? 0 : (double) totals.busyTime / ((double) makespan * cpus);
+            contextSwitches = totals.contextSwitches;
+            waitingP50 = waiting.percentile(50);
+            waitingP95 = waiting.percentile(95);
+            waitingP99 = waiting.percentile(99);
+            maxWaitingTime = waiting.max();
+        }
+
+        private static SummaryCollector collect(ScheduleResult result) {
+            SummaryCollector totals = new SummaryCollector();
+            for (int i = 0; i < result.workload.size(); i++) {
+                totals.record(result.waitingTime(i), result.turnaroundTime(i),
+                        result.firstStartTime(i) - result.workload.arrivalTime(i));
+            }
+            for (int cpu = 0; cpu < result.cpuCount(); cpu++) {
+                Timeline lane = result.lane(cpu);
+                totals.nextLane();
+                for (int s = 0; s < lane.size(); s++) {
+                    totals.add(lane.pid(s), lane.start(s), lane.end(s));
+                }
+            }
+            return totals;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "response %.2f, throughput %.4f, utilization %.3f, context switches %d, waiting p50 %d p95 %d p99 %d max %d",
+                    averageResponseTime, throughput, utilization, contextSwitches, waitingP50, waitingP95, waitingP99, maxWaitingTime);
+        }
+    }
+
+    // Binary trace of a schedule: the per-process results and every CPU's Gantt segments, stored as little-endian
+    // columns and read and written through memory-mapped buffers. Opening a trace only maps it; the OS pages in the
+    // parts that are actually read, so a multi-gigabyte trace opens at once and the Gantt chart touches little
+    // more than the segments on screen. Layout:
+    //   header     magic "PSATRACE", then int version, algorithm, cpus, processes, migrations, flags, reserved
+    //   lane table one long segment count per CPU
+    //   processes  int columns pid, arrival, burst, priority, completion, waiting, first start; then a double
+    //              column of dynamic priorities when flags has HAS_DYNAMIC_PRIORITIES
+    //   segments   per CPU, int columns pid, start, end
+    static final class TraceFile {
+
+        static final long MAGIC = 0x5053415452414345L; // "PSATRACE"
+        static final int VERSION = 1, HEADER_BYTES = 36;
+        static final int HAS_DYNAMIC_PRIORITIES = 1;
+        static final int PID = 0, ARRIVAL = 1, BURST = 2, PRIORITY = 3, COMPLETION = 4, WAITING = 5, FIRST_START = 6;
+        private static final int PROCESS_COLUMNS = 7;
+
+        final int algorithm, cpus, processes, migrations;
+        private final Column[] processColumns;
+        private final Column dynamicPriorities; // Null when the run had none
+        private final SegmentSource[] lanes;
+
+        // Fixed-width column of a trace. A single mapping cannot exceed 2 GB, so the column is mapped in
+        // windows of 1 GB; mapping is cheap, and reading a value only pages in its part of the file.
+        static final class Column {
+            private static final int WINDOW_BYTES_LOG = 30;
+            private final java.nio.ByteBuffer[] windows;
+            private final int elementLog, windowBits, windowMask;
+
+            Column(java.nio.channels.FileChannel channel, java.nio.channels.FileChannel.MapMode mode, long offset,
+                   long count, int elementBytes) throws java.io.IOException {
+                elementLog = Integer.numberOfTrailingZeros(elementBytes);
+                windowBits = WINDOW_BYTES_LOG - elementLog;
+                windowMask = (1 << windowBits) - 1;
+                windows = new java.nio.ByteBuffer[(int) ((count + windowMask) >>> windowBits)];
+                for (int w = 0; w < windows.length; w++) {
+                    long first = (long) w << windowBits;
+                    long bytes = Math.min(count - first, 1L << windowBits) << elementLog;
+                    windows[w] = channel.map(mode, offset + (first << elementLog), bytes).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+
+            int getInt(long i) {
+                return windows[(int) (i >>> windowBits)].getInt((int) (i & windowMask) << elementLog);
+            }
+
+            void putInt(long i, int value) {
+                windows[(int) (i >>> windowBits)].putInt((int) (i & windowMask) << elementLog, value);
+            }
+
+            double getDouble(long i) {
+                return windows[(int) (i >>> windowBits)].getDouble((int) (i & windowMask) << elementLog);
+            }
+
+            void putDouble(long i, double value) {
+                windows[(int) (i >>> windowBits)].putDouble((int) (i & windowMask) << elementLog, value);
+            }
+        }
+
+        // Gantt lane read straight from the mapped segment columns
+        static final class MappedTimeline extends SegmentSource {
+            private final Column pids, starts, ends;
+            private final int size;
+
+            MappedTimeline(Column pids, Column starts, Column ends, int size) {
+                this.pids = pids;
+                this.starts = starts;
+                this.ends = ends;
+                this.size = size;
+            }
+
+            @Override
+            int size() {
+                return size;
+            }
+
+            @Override
+            int pid(int i) {
+                return pids.getInt(i);
+            }
+
+            @Override
+            int start(int i) {
+                return starts.getInt(i);
+            }
+
+            @Override
+            int end(int i) {
+                return ends.getInt(i);
+            }
+        }
+
+        private TraceFile(int algorithm, int cpus, int processes, int migrations, Column[] processColumns,
+                          Column dynamicPriorities, SegmentSource[] lanes) {
+            this.algorithm = algorithm;
+            this.cpus = cpus;
+            this.processes = processes;
+            this.migrations = migrations;
+            this.processColumns = processColumns;
+            this.dynamicPriorities = dynamicPriorities;
+            this.lanes = lanes;
+        }
+
+        // Writes the result as a trace. The file is sized up front and filled through mappings, so the cost is
+        // little more than the page writes the OS does in the background.
+        static void write(ScheduleResult result, java.io.File file) throws java.io.IOException {
+            Metrics.PhaseEvent phase = Metrics.beginPhase(Metrics.EXPORT);
+            Workload workload = result.workload;
+            int n = workload.size(), cpus = result.cpuCount();
+            boolean dynamic = result.hasDynamicPriorities();
+            try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file.toPath(),
+                    java.nio.file.StandardOpenOption.CREATE, java.nio.file.StandardOpenOption.TRUNCATE_EXISTING,
+                    java.nio.file.StandardOpenOption.READ, java.nio.file.StandardOpenOption.WRITE)) {
+                java.nio.channels.FileChannel.MapMode mode = java.nio.channels.FileChannel.MapMode.READ_WRITE;
+                java.nio.ByteBuffer header = channel.map(mode, 0, HEADER_BYTES + 8L * cpus).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+                header.putLong(MAGIC).putInt(VERSION).putInt(result.algorithm).putInt(cpus).putInt(n)
+                        .putInt(result.migrations()).putInt(dynamic ? HAS_DYNAMIC_PRIORITIES : 0).putInt(0);
+                for (int cpu = 0; cpu < cpus; cpu++) {
+                    header.putLong(result.lane(cpu).size());
+                }
+
+                long offset = HEADER_BYTES + 8L * cpus;
+                for (int c = 0; c < PROCESS_COLUMNS; c++) {
+                    Column column = new Column(channel, mode, offset, n, 4);
+                    for (int i = 0; i < n; i++) {
+                        column.putInt(i, processValue(result, c, i));
+                    }
+                    offset += 4L * n;
+                }
+                if (dynamic) {
+                    Column column = new Column(channel, mode, offset, n, 8);
+                    for (int i = 0; i < n; i++) {
+                        column.putDouble(i, result.dynamicPriority(i));
+                    }
+                    offset += 8L * n;
+                }
+                for (int cpu = 0; cpu < cpus; cpu++) {
+                    Timeline lane = result.lane(cpu);
+                    int size = lane.size();
+                    Column pids = new Column(channel, mode, offset, size, 4);
+                    Column starts = new Column(channel, mode, offset + 4L * size, size, 4);
+                    Column ends = new Column(channel, mode, offset + 8L * size, size, 4);
+                    for (int s = 0; s < size; s++) {
+                        pids.putInt(s, lane.pid(s));
+                        starts.putInt(s, lane.start(s));
+                        ends.putInt(s, lane.end(s));
+                    }
+                    offset += 12L * size;
+                }
+            }
+            Metrics.endPhase(phase);
+        }
+
+        private static int processValue(ScheduleResult result, int column, int i) {
+            switch (column) {
+                case PID: return result.workload.pid(i);
+                case ARRIVAL: return result.workload.arrivalTime(i);
+                case BURST: return result.workload.burstTime(i);
+                case PRIORITY: return result.workload.priority(i);
+                case COMPLETION: return result.completionTime(i);
+                case WAITING: return result.waitingTime(i);
+                default: return result.firstStartTime(i);
+            }
+        }
+
+        // Maps a trace for reading. Nothing but the header and lane table is read here.
+        static TraceFile open(java.io.File file) throws java.io.IOException {
+            Metrics.PhaseEvent phase = Metrics.beginPhase(Metrics.PARSE);
+            try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file.toPath(),
+                    java.nio.file.StandardOpenOption.READ)) {
+                java.nio.channels.FileChannel.MapMode mode = java.nio.channels.FileChannel.MapMode.READ_ONLY;
+                long fileSize = channel.size();
+                if (fileSize < HEADER_BYTES) {
+                    throw new java.io.IOException("Not a schedule trace: " + file);
+                }
+                java.nio.ByteBuffer header = channel.map(mode, 0, HEADER_BYTES).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+                if (header.getLong() != MAGIC) {
+                    throw new java.io.IOException("Not a schedule trace: " + file);
+                }
+                int version = header.getInt();
+                if (version != VERSION) {
+                    throw new java.io.IOException("Unsupported trace version " + version + ": " + file);
+                }
+                int algorithm = header.getInt(), cpus = header.getInt(), n = header.getInt(), migrations = header.getInt();
+                boolean dynamic = (header.getInt() & HAS_DYNAMIC_PRIORITIES) != 0;
+                if (algorithm < 0 || algorithm >= Scheduler.ALGORITHM_NAMES.length || cpus < 1 || n < 0
+                        || HEADER_BYTES + 8L * cpus > fileSize) {
+                    throw new java.io.IOException("Corrupt trace header: " + file);
+                }
+
+                java.nio.ByteBuffer laneTable = channel.map(mode, HEADER_BYTES, 8L * cpus).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+                long[] segmentCounts = new long[cpus];
+                long expectedSize = HEADER_BYTES + 8L * cpus + (PROCESS_COLUMNS * 4L + (dynamic ? 8 : 0)) * n;
+                for (int cpu = 0; cpu < cpus; cpu++) {
+                    segmentCounts[cpu] = laneTable.getLong();
+                    if (segmentCounts[cpu] < 0 || segmentCounts[cpu] > Integer.MAX_VALUE) {
+                        throw new java.io.IOException("Corrupt trace lane table: " + file);
+                    }
+                    expectedSize += 12 * segmentCounts[cpu];
+                }
+                if (expectedSize != fileSize) {
+                    throw new java.io.IOException("Truncated or corrupt trace (" + fileSize + " bytes, expected "
+                            + expectedSize + "): " + file);
+                }
+
+                long offset = HEADER_BYTES + 8L * cpus;
+                Column[] processColumns = new Column[PROCESS_COLUMNS];
+                for (int c = 0; c < PROCESS_COLUMNS; c++) {
+                    processColumns[c] = new Column(channel, mode, offset, n, 4);
+                    offset += 4L * n;
+                }
+                Column dynamicPriorities = null;
+                if (dynamic) {
+                    dynamicPriorities = new Column(channel, mode, offset, n, 8);
+                    offset += 8L * n;
+                }
+                SegmentSource[] lanes = new SegmentSource[cpus];
+                for (int cpu = 0; cpu < cpus; cpu++) {
+                    int size = (int) segmentCounts[cpu];
+                    lanes[cpu] = new MappedTimeline(new Column(channel, mode, offset, size, 4),
+                            new Column(channel, mode, offset + 4L * size, size, 4),
+                            new Column(channel, mode, offset + 8L * size, size, 4), size);
+                    offset += 12L * size;
+                }
+                // Mappings stay valid after the channel is closed
+                Metrics.endPhase(phase);
+                return new TraceFile(algorithm, cpus, n, migrations, processColumns, dynamicPriorities, lanes);
+            }
+        }
+
+        // Per-process value of one of the columns PID .. FIRST_START
+        int value(int column, int i) {
+            return processColumns[column].getInt(i);
+        }
+
+        boolean hasDynamicPriorities() {
+            return dynamicPriorities != null;
+        }
+
+        double dynamicPriority(int i) {
+            return dynamicPriorities.getDouble(i);
+        }
+
+        SegmentSource lane(int cpu) {
+            return lanes[cpu];
+        }
+    }
+
+    // Bounded cache of scheduling results, keyed by workload contents plus algorithm and its parameters.
+    // Least recently used entries are evicted first. Safe to use from several threads.
+    static final class ResultCache {
+
+        static final class Key {
+            final Workload workload;
+            final int algorithm;
+            final double[] parameters;
+
+            Key(Workload workload, int algorithm, double[] parameters) {
+                this.workload = workload;
+                this.algorithm = algorithm;
+                this.parameters = parameters;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Key)) {
+                    return false;
+                }
+                Key other = (Key) o;
+                return algorithm == other.algorithm && Arrays.equals(parameters, other.parameters)
+                        && workload.equals(other.workload);
+            }
+
+            @Override
+            public int hashCode() {
+                return 31 * (31 * workload.hashCode() + algorithm) + Arrays.hashCode(parameters);
+            }
+        }
+
+        final int maxEntries;
+        private final LinkedHashMap<Key, ScheduleResult> entries;
+        // Latest single-CPU run of each algorithm, kept with its checkpoints so an edited table is re-simulated
+        // only from the first edited arrival on. Guarded by entries.
+        private final CheckpointedRun[] lastRuns = new CheckpointedRun[Scheduler.ALGORITHM_NAMES.length];
+        private final java.util.concurrent.atomic.AtomicLong hits = new java.util.concurrent.atomic.AtomicLong();
+        private final java.util.concurrent.atomic.AtomicLong misses = new java.util.concurrent.atomic.AtomicLong();
+
+        ResultCache(int maxEntries) {
+            this.maxEntries = maxEntries;
+            this.entries = new LinkedHashMap<Key, ScheduleResult>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, ScheduleResult> eldest) {
+                    return size() > ResultCache.this.maxEntries;
+                }
+            };
+        }
+
+        // Returns the cached result for this run, scheduling it first on a miss
+        ScheduleResult get(Workload workload, int algorithm) {
+            return get(workload, algorithm, 1);
+        }
+
+        // As above on the given number of CPUs, with least-loaded placement and work stealing
+        ScheduleResult get(Workload workload, int algorithm, int cpus) {
+            return get(workload, algorithm, cpus, Scheduler.BURST_WEIGHT, Scheduler.WAIT_WEIGHT);
+        }
+
+        // As above with the given Dynamic Priority Boost weights, which only the dynamic runs are keyed on
+        ScheduleResult get(Workload workload, int algorithm, int cpus, double burstWeight, double waitWeight) {
+            double[] policyParameters = Scheduler.policy(algorithm, burstWeight, waitWeight).parameters();
+            double[] parameters = Arrays.copyOf(new double[]{cpus}, 1 + policyParameters.length);
+            System.arraycopy(policyParameters, 0, parameters, 1, policyParameters.length);
+            Key key = new Key(workload, algorithm, parameters);
+            ScheduleResult result;
+            synchronized (entries) {
+                result = entries.get(key);
+            }
+            if (result != null) {
+                hits.incrementAndGet();
+                return result;
+            }
+            misses.incrementAndGet();
+            // Scheduled outside the lock so other lookups are not held up by a long run
+            if (cpus == 1) {
+                CheckpointedRun previous;
+                synchronized (entries) {
+                    previous = lastRuns[algorithm];
+                }
+                CheckpointedRun run = previous != null && previous.hasWeights(burstWeight, waitWeight)
+                        ? previous.rerun(workload) : CheckpointedRun.run(workload, algorithm, burstWeight, waitWeight);
+                result = run.result;
+                synchronized (entries) {
+                    lastRuns[algorithm] = run;
+                }
+            } else {
+                result = MultiCoreScheduler.schedule(workload, algorithm, cpus, MultiCoreScheduler.LEAST_LOADED, true,
+                        burstWeight, waitWeight);
+            }
+            synchronized (entries) {
+                entries.put(key, result);
+            }
+            return result;
+        }
+
+        long hitCount() {
+            return hits.get();
+        }
+
+        long missCount() {
+            return misses.get();
+        }
+
+        int size() {
+            synchronized (entries) {
+                return entries.size();
+            }
+        }
+
+        void clear() {
+            synchronized (entries) {
+                entries.clear();
+                Arrays.fill(lastRuns, null);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ResultCache[entries=" + size() + ", hits=" + hitCount() + ", misses=" + missCount() + "]";
+        }
+    }
+
+    // Paints a Timeline for the Gantt panel. Only segments inside the clip rectangle are visited, starting from a
+    // binary search, and paints, fonts and labels are cached per PID so painting allocates nothing per block.
+    // Segments narrower than a few pixels at the current zoom are merged into pixel columns, so the cost of a
+    // paint depends on the visible width rather than on the number of segments.
+    static class GanttRenderer {
+
+        static final int ORIGIN_X = 40, TOP = 50, BAR_HEIGHT = 40, PANEL_HEIGHT = 150;
+        static final int LANE_HEIGHT = 100; // Vertical distance between the lanes of a multi-CPU chart
+        static final double DEFAULT_SCALE = 40; // Pixels per time unit
+        static final double MAX_SCALE = 160;
+        private static final double MAX_CHART_WIDTH = 1 << 28; // Keeps pixel coordinates well inside int range
+        private static final int MIN_BLOCK_WIDTH = 4; // Narrower segments are drawn as merged pixel columns
+        private static final Font LABEL_FONT = new Font("Segoe UI", Font.BOLD, 12);
+        private static final Font TIME_FONT = new Font("Segoe UI", Font.PLAIN, 11);
+        private static final BasicStroke AXIS_STROKE = new BasicStroke(2);
+        private static final BasicStroke THIN_STROKE = new BasicStroke(1);
+        private static final int MAX_CACHED_PID = 1 << 22;
+
+        private SegmentSource[] lanes = new SegmentSource[0]; // One per CPU
+        private int length; // Longest lane
+        private double scale = DEFAULT_SCALE;
+        // Per-PID caches, indexed by pid + 1 so that IDLE (-1) sits at 0
+        private Color[] colors = new Color[0];
+        private GradientPaint[] paints = new GradientPaint[0];
+        private String[] labels = new String[0];
+        private final char[] digits = new char[12];
+
+        boolean hasTimeline() {
+            return length > 0;
+        }
+
+        void setTimelines(SegmentSource[] lanes) {
+            this.lanes = lanes;
+            this.length = 0;
+            for (SegmentSource lane : lanes) {
+                length = Math.max(length, lane.length());
+            }
+            this.scale = hasTimeline() ? Math.min(DEFAULT_SCALE, MAX_CHART_WIDTH / length) : DEFAULT_SCALE;
+        }
+
+        int preferredHeight() {
+            return PANEL_HEIGHT + Math.max(0, lanes.length - 1) * LANE_HEIGHT;
+        }
+
+        double getScale() {
+            return scale;
+        }
+
+        // Zoom level in pixels per time unit; zooming out stops once the whole chart fits in the viewport
+        void setScale(double scale, int viewportWidth) {
+            if (!hasTimeline()) {
+                return;
+            }
+            double fit = Math.max(1, viewportWidth - 2 * ORIGIN_X) / (double) length;
+            double max = Math.min(MAX_SCALE, MAX_CHART_WIDTH / length);
+            double min = Math.min(Math.min(fit, DEFAULT_SCALE), max);
+            this.scale = Math.max(min, Math.min(scale, max));
+        }
+
+        int preferredWidth(int viewportWidth) {
+            if (!hasTimeline()) {
+                return viewportWidth;
+            }
+            return Math.max(viewportWidth, xOf(length) + ORIGIN_X);
+        }
+
+        int xOf(double time) {
+            return ORIGIN_X + (int) Math.floor(time * scale);
+        }
+
+        double timeAt(int x) {
+            return (x - ORIGIN_X) / scale;
+        }
+
+        void paint(Graphics2D g2d, Rectangle clip) {
+            Metrics.PhaseEvent phase = Metrics.beginPhase(Metrics.RENDER);
+            for (int lane = 0; lane < lanes.length; lane++) {
+                int laneTop = lane * LANE_HEIGHT;
+                if (laneTop + PANEL_HEIGHT <= clip.y || laneTop >= clip.y + clip.height) {
+                    continue; // Lane outside the clip
+                }
+                // Each lane is drawn in the coordinates of the first, so the cached gradients fit every lane
+                g2d.translate(0, laneTop);
+                if (lanes.length > 1) {
+                    g2d.setColor(LIGHT_ACCENT);
+                    g2d.setFont(TIME_FONT);
+                    g2d.drawString("CPU " + lane, ORIGIN_X, TOP - 6);
+                }
+                paintLane(g2d, new Rectangle(clip.x, clip.y - laneTop, clip.width, clip.height), lanes[lane]);
+                g2d.translate(0, -laneTop);
+            }
+            Metrics.endPhase(phase);
+        }
+
+        private void paintLane(Graphics2D g2d, Rectangle clip, SegmentSource timeline) {
+            int length = timeline.length();
+            int clipRight = clip.x + clip.width;
+            int barBottom = TOP + BAR_HEIGHT;
+
+            // Draw timeline
+            g2d.setColor(ACCENT_COLOR);
+            g2d.setStroke(AXIS_STROKE); // Thicker line
+            g2d.drawLine(Math.max(clip.x, ORIGIN_X), barBottom + 15, Math.min(clipRight, xOf(length)), barBottom + 15);
+            g2d.setStroke(THIN_STROKE); // Reset stroke
+
+            FontMetrics labelFm = g2d.getFontMetrics(LABEL_FONT);
+            FontMetrics timeFm = g2d.getFontMetrics(TIME_FONT);
+            int lastTimeLabelEnd = Integer.MIN_VALUE;
+
+            // Start one segment to the left of the clip so its time label can spill into view
+            int i = Math.max(0, timeline.indexAt((long) Math.floor(timeAt(clip.x))) - 1);
+            int paintedUpTo = Integer.MIN_VALUE; // Pixels left of this already belong to a merged column
+            while (i < timeline.size()) {
+                int segmentX = xOf(timeline.start(i));
+                int x = Math.max(segmentX, paintedUpTo);
+                if (x > clipRight + 60) {
+                    break;
+                }
+                int pid = timeline.pid(i);
+                int blockWidth = xOf(timeline.end(i)) - x;
+                if (blockWidth <= 0) {
+                    i++; // Entirely inside the previous merged column
+                    continue;
+                }
+
+                if (blockWidth < MIN_BLOCK_WIDTH) {
+                    // Several segments share these pixels: draw one flat column in the colour of the first,
+                    // then continue with the segment covering the time at the next column
+                    int columnWidth = Math.max(1, blockWidth);
+                    g2d.setColor(colorFor(pid));
+                    g2d.fillRect(x, TOP, columnWidth, BAR_HEIGHT);
+                    paintedUpTo = x + columnWidth;
+                    i = Math.max(i + 1, timeline.indexAt((long) Math.floor(timeAt(paintedUpTo))));
+                    continue;
+                }
+
+                g2d.setPaint(paintFor(pid));
+                g2d.fillRoundRect(x, TOP, blockWidth, BAR_HEIGHT, 8, 8); // Rounded corners
+
+                // Border
+                g2d.setColor(DARK_BACKGROUND.brighter()); // Slightly brighter border
+                g2d.drawRoundRect(x, TOP, blockWidth, BAR_HEIGHT, 8, 8);
+
+                // Process label (PID or IDLE), only when it fits inside the block
+                String label = labelFor(pid);
+                int labelWidth = labelFm.stringWidth(label);
+                if (labelWidth + 6 <= blockWidth) {
+                    g2d.setColor(TEXT_COLOR); // Use TEXT_COLOR for labels
+                    g2d.setFont(LABEL_FONT);
+                    g2d.drawString(label, x + (blockWidth - labelWidth) / 2, TOP + BAR_HEIGHT / 2 + labelFm.getAscent() / 3);
+                }
+
+                // Time markers at the real start of the segment, skipped where they would overlap the previous one
+                if (x == segmentX) {
+                    g2d.setColor(ACCENT_COLOR);
+                    g2d.drawLine(x, barBottom + 10, x, barBottom + 20); // Vertical tick
+                    lastTimeLabelEnd = drawTime(g2d, timeFm, timeline.start(i), x, barBottom + 35, lastTimeLabelEnd);
+                }
+                i++;
+            }
+
+            // Final time marker
+            int endX = xOf(length);
+            if (endX >= clip.x - 60 && endX <= clipRight + 60) {
+                g2d.setColor(ACCENT_COLOR);
+                drawTime(g2d, timeFm, length, endX, barBottom + 35, lastTimeLabelEnd);
+            }
+        }
+
+        // Draws a time value centred under x without creating a String; returns the right edge of the label
+        private int drawTime(Graphics2D g2d, FontMetrics timeFm, int time, int x, int y, int lastLabelEnd) {
+            int pos = digits.length;
+            long value = time;
+            do {
+                digits[--pos] = (char) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            int width = timeFm.charsWidth(digits, pos, digits.length - pos);
+            int left = x - width / 2;
+            if (left <= lastLabelEnd + 4) {
+                return lastLabelEnd;
+            }
+            g2d.setFont(TIME_FONT); // Use the dedicated time font
+            g2d.drawChars(digits, pos, digits.length - pos, left, y);
+            return left + width;
+        }
+
+        private Color colorFor(int pid) {
+            if (!ensureCached(pid)) {
+                return baseColor(pid);
+            }
+            return colors[pid + 1];
+        }
+
+        private GradientPaint paintFor(int pid) {
+            if (!ensureCached(pid)) {
+                return gradient(baseColor(pid), pid);
+            }
+            return paints[pid + 1];
+        }
+
+        private String labelFor(int pid) {
+            if (!ensureCached(pid)) {
+                return pid == -1 ? "IDLE" : "P" + pid;
+            }
+            return labels[pid + 1];
+        }
+
+        // Fills the caches for this PID; false for PIDs too large to cache
+        private boolean ensureCached(int pid) {
+            int slot = pid + 1;
+            if (slot < 0 || slot >= MAX_CACHED_PID) {
+                return false;
+            }
+            if (slot >= colors.length) {
+                int capacity = Math.max(slot + 1, colors.length * 2);
+                colors = Arrays.copyOf(colors, capacity);
+                paints = Arrays.copyOf(paints, capacity);
+                labels = Arrays.copyOf(labels, capacity);
+            }
+            if (colors[slot] == null) {
+                Color color = baseColor(pid);
+                colors[slot] = color;
+                paints[slot] = gradient(color, pid);
+                labels[slot] = pid == -1 ? "IDLE" : "P" + pid;
+            }
+            return true;
+        }
+
+        private static Color baseColor(int pid) {
+            if (pid == -1) {
+                return IDLE_COLOR;
+            }
+            // Generate a distinct color for each process based on PID
+            return Color.getHSBColor(((pid * 0.1618f) + 0.618f) % 1, 0.7f, 0.8f); // Golden ratio conjugate for spread
+        }
+
+        // Vertical gradient for process blocks; it does not depend on x, so one instance serves every block of a PID
+        private static GradientPaint gradient(Color color, int pid) {
+            Color end = pid == -1 ? color.darker() : color.darker().darker(); // Darker gradient end
+            return new GradientPaint(0, TOP, color, 0, TOP + BAR_HEIGHT, end);
+        }
+
+        // A renderer showing the same chart at the same zoom, for use on another thread
+        GanttRenderer copy() {
+            GanttRenderer copy = new GanttRenderer();
+            copy.lanes = lanes;
+            copy.length = length;
+            copy.scale = scale;
+            return copy;
+        }
+    }
+
+    // Caches the Gantt chart as fixed-width off-screen tiles, so scrolling only copies images instead of redrawing
+    // gradients and rounded blocks. Missing tiles are rendered on a background thread (the visible part is drawn
+    // directly meanwhile) and kept in an LRU cache bounded by memory. Any new schedule or zoom level invalidates it.
+    static class GanttTileCache {
+
+        static final int TILE_WIDTH = 512;
+
+        private final JComponent target;
+        private final GanttRenderer renderer; // Renderer used on the event thread
+        private final long maxBytes;
+        private final LinkedHashMap<Integer, java.awt.image.BufferedImage> tiles = new LinkedHashMap<>(64, 0.75f, true);
+        private final HashSet<Integer> pending = new HashSet<>();
+        private final java.util.concurrent.ExecutorService executor;
+        private long cachedBytes;
+        private int generation; // Bumped on every invalidation; renders of older generations are dropped
+        private GanttRenderer tileRenderer; // Copy of the renderer used by the background thread
+
+        GanttTileCache(JComponent target, GanttRenderer renderer, long maxBytes) {
+            this.target = target;
+            this.renderer = renderer;
+            this.maxBytes = maxBytes;
+            this.executor = java.util.concurrent.Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "gantt-tiles");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+        }
+
+        // Drops all tiles; call whenever the schedule or the zoom level changes
+        void invalidate() {
+            synchronized (tiles) {
+                generation++;
+                tiles.clear();
+                pending.clear();
+                cachedBytes = 0;
+                tileRenderer = renderer.copy();
+            }
+        }
+
+        void paint(Graphics2D g2d, Rectangle clip) {
+            int first = Math.max(0, clip.x / TILE_WIDTH);
+            int last = (clip.x + clip.width - 1) / TILE_WIDTH;
+            int height = target.getHeight();
+            for (int index = first; index <= last; index++) {
+                java.awt.image.BufferedImage tile;
+                synchronized (tiles) {
+                    tile = tiles.get(index);
+                }
+                int tileX = index * TILE_WIDTH;
+                if (tile != null && tile.getHeight() == height) {
+                    g2d.drawImage(tile, tileX, 0, null);
+                } else {
+                    request(index, height);
+                    // Draw this part directly until the tile is ready
+                    Rectangle area = clip.intersection(new Rectangle(tileX, 0, TILE_WIDTH, height));
+                    Shape oldClip = g2d.getClip();
+                    g2d.clip(area);
+                    renderer.paint(g2d, area);
+                    g2d.setClip(oldClip);
+                }
+            }
+            // Prepare the neighbouring tiles so short scrolls find them ready
+            request(first - 1, height);
+            request(last + 1, height);
+        }
+
+        private void request(int index, int height) {
+            if (index < 0 || index * (long) TILE_WIDTH >= target.getWidth() || height <= 0) {
+                return;
+            }
+            int requestGeneration;
+            GanttRenderer tileRenderer;
+            synchronized (tiles) {
+                if (tiles.containsKey(index) || !pending.add(index)) {
+                    return;
+                }
+                requestGeneration = generation;
+                tileRenderer = this.tileRenderer;
+            }
+            executor.execute(() -> {
+                synchronized (tiles) {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                }
+                java.awt.image.BufferedImage tile = render(tileRenderer, index, height);
+                synchronized (tiles) {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    pending.remove(index);
+                    tiles.put(index, tile);
+                    cachedBytes += 4L * tile.getWidth() * tile.getHeight();
+                    // Evict least recently drawn tiles beyond the memory budget
+                    Iterator<java.awt.image.BufferedImage> it = tiles.values().iterator();
+                    while (cachedBytes > maxBytes && it.hasNext()) {
+                        java.awt.image.BufferedImage evicted = it.next();
+                        cachedBytes -= 4L * evicted.getWidth() * evicted.getHeight();
+                        it.remove();
+                    }
+                }
+                SwingUtilities.invokeLater(() -> target.repaint(index * TILE_WIDTH, 0, TILE_WIDTH, height));
+            });
+        }
+
+        private static java.awt.image.BufferedImage render(GanttRenderer tileRenderer, int index, int height) {
+            java.awt.image.BufferedImage tile = new java.awt.image.BufferedImage(TILE_WIDTH, height,
+                    java.awt.image.BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = tile.createGraphics();
+            g2d.setColor(GANTT_BACKGROUND);
+            g2d.fillRect(0, 0, TILE_WIDTH, height);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            int tileX = index * TILE_WIDTH;
+            g2d.translate(-tileX, 0);
+            Rectangle area = new Rectangle(tileX, 0, TILE_WIDTH, height);
+            g2d.setClip(area);
+            tileRenderer.paint(g2d, area);
+            g2d.dispose();
+            return tile;
+        }
+    }
+
+    // Editable input table backed by int arrays. Cells are parsed once, when edited, and their state (missing,
+    // numeric or non-numeric text) is kept per cell, so validating the table is a single pass over primitives.
+    static class ProcessTableModel extends AbstractTableModel {
+
+        static final int OK = 0, MISSING = 1, NON_NUMERIC = 2, OUT_OF_RANGE = 3;
+        private static final String[] COLUMNS = {"PID", "Arrival Time", "Burst Time", "Priority"};
+        private static final byte EMPTY = 0, NUMBER = 1, TEXT = 2;
+
+        private final int rows;
+        private final int[] values; // Arrival, burst and priority of each row, three per row
+        private final byte[] states;
+        private final HashMap<Integer, String> texts = new HashMap<>(); // Non-numeric input, kept so it can be shown
+
+        ProcessTableModel(int rows) {
+            this.rows = rows;
+            this.values = new int[3 * rows];
+            this.states = new byte[3 * rows];
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return column > 0; // Make PID column non-editable
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (column == 0) {
+                return "P" + (row + 1);
+            }
+            int cell = 3 * row + column - 1;
+            switch (states[cell]) {
+                case NUMBER:
+                    return values[cell];
+                case TEXT:
+                    return texts.get(cell);
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public void setValueAt(Object value, int row, int column) {
+            int cell = 3 * row + column - 1;
+            String text = value == null ? "" : value.toString().trim();
+            texts.remove(cell);
+            if (text.isEmpty()) {
+                states[cell] = EMPTY;
+            } else {
+                try {
+                    values[cell] = Integer.parseInt(text);
+                    states[cell] = NUMBER;
+                } catch (NumberFormatException e) {
+                    states[cell] = TEXT;
+                    texts.put(cell, text);
+                }
+            }
+            fireTableCellUpdated(row, column);
+        }
+
+        // First row that cannot be scheduled, or -1 when every row is valid
+        int firstInvalidRow() {
+            for (int row = 0; row < rows; row++) {
+                if (problemAt(row) != OK) {
+                    return row;
+                }
+            }
+            return -1;
+        }
+
+        // What is wrong with a row: the first missing or non-numeric cell, then the value ranges
+        int problemAt(int row) {
+            int cell = 3 * row;
+            for (int i = cell; i < cell + 3; i++) {
+                if (states[i] == EMPTY) {
+                    return MISSING;
+                }
+                if (states[i] == TEXT) {
+                    return NON_NUMERIC;
+                }
+            }
+            if (values[cell] < 0 || values[cell + 1] <= 0 || values[cell + 2] < 0) {
+                return OUT_OF_RANGE;
+            }
+            return OK;
+        }
+
+        // The table as a workload with PIDs 1..n; call only when firstInvalidRow() is -1
+        Workload toWorkload() {
+            Metrics.PhaseEvent phase = Metrics.beginPhase(Metrics.PARSE);
+            int[] pids = new int[rows], arrivalTimes = new int[rows], burstTimes = new int[rows], priorities = new int[rows];
+            for (int row = 0, cell = 0; row < rows; row++, cell += 3) {
+                pids[row] = row + 1;
+                arrivalTimes[row] = values[cell];
+                burstTimes[row] = values[cell + 1];
+                priorities[row] = values[cell + 2];
+            }
+            Metrics.endPhase(phase);
+            return new Workload(pids, arrivalTimes, burstTimes, priorities);
+        }
+    }
+
+    // View of a scheduling result with an average row at the bottom. Cells are formatted only when the table
+    // asks for them, which is just for the rows on screen. The arrival, burst and priority cells of the process
+    // rows stay editable and pass edits on to the input table the result was scheduled from.
+    static class ResultTableModel extends AbstractTableModel {
+
+        static final String[] COLUMNS = {"PID", "Arrival Time", "Burst Time", "Priority", "Waiting Time", "Turnaround Time",
+                "Response Time", "Dynamic Priority"};
+
+        private final ScheduleResult result;
+        private final ProcessTableModel input; // Row i holds the process of workload row i
+        private final int columns;
+        private String averageWaiting, averageTurnaround, averageResponse; // Formatted on first use
+
+        ResultTableModel(ScheduleResult result, ProcessTableModel input) {
+            this.result = result;
+            this.input = input;
+            this.columns = result.hasDynamicPriorities() ? 8 : 7;
+        }
+
+        @Override
+        public int getRowCount() {
+            int n = result.workload.size();
+            return n > 0 ? n + 1 : 0;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            // Only the inputs; the results change on the next run
+            return row < result.workload.size() && column >= 1 && column <= 3;
+        }
+
+        @Override
+        public void setValueAt(Object value, int row, int column) {
+            input.setValueAt(value, row, column);
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            Workload workload = result.workload;
+            if (row == workload.size()) {
+                // Average row
+                if (column == 0) {
+                    return "Avg";
+                }
+                if (column == 4) {
+                    if (averageWaiting == null) {
+                        averageWaiting = String.format("%.2f", result.averageWaitingTime());
+                    }
+                    return averageWaiting;
+                }
+                if (column == 5) {
+                    if (averageTurnaround == null) {
+                        averageTurnaround = String.format("%.2f", result.averageTurnaroundTime());
+                    }
+                    return averageTurnaround;
+                }
+                if (column == 6) {
+                    if (averageResponse == null) {
+                        averageResponse = String.format("%.2f", result.summary().averageResponseTime);
+                    }
+                    return averageResponse;
+                }
+                return "";
+            }
+            // Rows follow the workload, which is in PID order
+            switch (column) {
+                case 0:
+                    return "P" + workload.pid(row);
+                case 1:
+                    return workload.arrivalTime(row);
+                case 2:
+                    return workload.burstTime(row);
+                case 3:
+                    return workload.priority(row);
+                case 4:
+                    return result.waitingTime(row);
+                case 5:
+                    return result.turnaroundTime(row);
+                case 6:
+                    return result.firstStartTime(row) - workload.arrivalTime(row);
+                default:
+                    return String.format("%.2f", result.dynamicPriority(row));
+            }
+        }
+    }
+
+    // Per-process results of a trace, in the layout of ResultTableModel without the average row (which would
+    // need a pass over the whole file). Cells are read from the mapping only when the table shows them.
+    static class TraceTableModel extends AbstractTableModel {
+
+        private final TraceFile trace;
+
+        TraceTableModel(TraceFile trace) {
+            this.trace = trace;
+        }
+
+        @Override
+        public int getRowCount() {
+            return trace.processes;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return trace.hasDynamicPriorities() ? 8 : 7;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return ResultTableModel.COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            switch (column) {
+                case 0:
+                    return "P" + trace.value(TraceFile.PID, row);
+                case 1:
+                    return trace.value(TraceFile.ARRIVAL, row);
+                case 2:
+                    return trace.value(TraceFile.BURST, row);
+                case 3:
+                    return trace.value(TraceFile.PRIORITY, row);
+                case 4:
+                    return trace.value(TraceFile.WAITING, row);
+                case 5:
+                    return trace.value(TraceFile.COMPLETION, row) - trace.value(TraceFile.ARRIVAL, row);
+                case 6:
+                    return trace.value(TraceFile.FIRST_START, row) - trace.value(TraceFile.ARRIVAL, row);
+                default:
+                    return String.format("%.2f", trace.dynamicPriority(row));
+            }
+        }
+    }
+
+    // Enhanced comparison dialog
+    private void showComparisonDialog() {
+        if (model == null || model.getRowCount() == 0) {
+            JOptionPane.showMessageDialog(this,
+                    "No process data to compare. Please create a table and enter processes first.",
+                    "Comparison Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        // Validate input before running comparison
+        if (table.isEditing()) {
+            table.getCellEditor().stopCellEditing();
+        }
+        int row = model.firstInvalidRow();
+        if (row >= 0) {
+            int problem = model.problemAt(row);
+            if (problem == ProcessTableModel.MISSING) {
+                JOptionPane.showMessageDialog(this, "Missing input at row " + (row + 1) + " for comparison. Please fill all fields.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            } else if (problem == ProcessTableModel.NON_NUMERIC) {
+                JOptionPane.showMessageDialog(this, "Invalid input (non-numeric) at row " + (row + 1) + " for comparison. Please enter valid numbers.");
+            } else {
+                JOptionPane.showMessageDialog(this, "Invalid input at row " + (row + 1) + " for comparison. Arrival Time must be >= 0, Burst Time > 0, Priority >= 0.");
+            }
+            return;
+        }
+
+        Workload comparisonWorkload = model.toWorkload();
+        int cpus = readCpuCount();
+        if (cpus < 0) {
+            return;
+        }
+
+        // Create a professional-looking dialog
+        JDialog dialog = new JDialog(this, "Algorithm Comparison", true); // Modal dialog
+        dialog.setLayout(new BorderLayout());
+        dialog.setSize(760, 800); // Room for the extended statistics of every algorithm
+        dialog.setLocationRelativeTo(this); // Center on parent frame
+
+        // Create content panel
+        JPanel contentPanel = new JPanel(new BorderLayout());
+        contentPanel.setBackground(DARK_BACKGROUND);
+        contentPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        // Create title label
+        JLabel titleLabel = new JLabel("Algorithm Performance Comparison", JLabel.CENTER);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 18)); // Larger font
+        titleLabel.setForeground(ACCENT_COLOR);
+        titleLabel.setBorder(new EmptyBorder(0, 0, 20, 0)); // More padding
+        contentPanel.add(titleLabel, BorderLayout.NORTH);
+
+        // Create results panel
+        // Run comparisons; one entry per Scheduler.ALGORITHM_NAMES
+        String[] algoNames = {"Priority Preemptive", "Priority Non-Preemptive", "Dynamic Priority Boost", "Round Robin Priority"};
+        JPanel resultsPanel = new JPanel(new GridLayout(algoNames.length, 1, 15, 15)); // More spacing
+        resultsPanel.setBackground(DARK_BACKGROUND);
+
+        // Slightly different shades for comparison boxes
+        Color[] algoColors = {
+                new Color(0, 160, 140), // Teal shade
+                new Color(255, 165, 0),  // Orange
+                new Color(100, 180, 220), // Light Blue
+                new Color(200, 120, 220) // Violet
+        };
+
+
+        // Each algorithm runs in its own background task; its panel fills in as soon as the run finishes
+        ArrayList<SwingWorker<ScheduleResult, Void>> workers = new ArrayList<>();
+        JButton cancelButton = createStyledButton("Cancel");
+        int[] remaining = {algoNames.length};
+
+        for (int algo = 0; algo < algoNames.length; algo++) {
+            JPanel algoPanel = new JPanel(new BorderLayout()); // Use BorderLayout for better label/stats arrangement
+            algoPanel.setBackground(MEDIUM_BACKGROUND);
+            algoPanel.setBorder(BorderFactory.createCompoundBorder(
+                    BorderFactory.createLineBorder(algoColors[algo], 2), // Thicker border
+                    new EmptyBorder(12, 18, 12, 18) // More padding
+            ));
+
+            JLabel algoLabel = new JLabel(algoNames[algo], JLabel.LEFT); // Align left
+            algoLabel.setFont(new Font("Segoe UI", Font.BOLD, 15));
+            algoLabel.setForeground(algoColors[algo]);
+            algoPanel.add(algoLabel, BorderLayout.NORTH);
+
+            // Progress indicator shown until the run completes
+            JProgressBar progressBar = new JProgressBar();
+            progressBar.setIndeterminate(true);
+            progressBar.setForeground(algoColors[algo]);
+            progressBar.setBackground(MEDIUM_BACKGROUND);
+            progressBar.setBorder(new EmptyBorder(10, 0, 10, 0));
+            algoPanel.add(progressBar, BorderLayout.CENTER);
 
-        // Add close button
+            resultsPanel.add(algoPanel);
+
+            final int algorithm = algo;
+            SwingWorker<ScheduleResult, Void> worker = new SwingWorker<ScheduleResult, Void>() {
+                @Override
+                protected ScheduleResult doInBackground() {
+                    // Workload is immutable and every run has its own engine and store, so the runs can go in
+                    // parallel; results already computed for this table come straight from the cache
+                    return resultCache.get(comparisonWorkload, algorithm, cpus, burstWeight, waitWeight);
+                }
+
+                @Override
+                protected void done() {
+                    JLabel statsLabel;
+                    if (isCancelled()) {
+                        statsLabel = new JLabel("Cancelled");
+                    } else {
+                        try {
+                            ScheduleResult result = get();
+                            // Numbers are now explicitly white using TEXT_COLOR's RGB
+                            String cpuStats = cpus == 1 ? "" : String.format(Locale.ROOT,
+                                    "<br>Load Imbalance: <b style='color: #%06X;'>%.1f%%</b> (%d migrations)",
+                                    TEXT_COLOR.getRGB() & 0xFFFFFF, result.loadImbalance() * 100, result.migrations());
+                            if (result.metrics != null) {
+                                cpuStats += "<br><small>" + result.metrics + "</small>";
+                            }
+                            ScheduleSummary summary = result.summary();
+                            int white = TEXT_COLOR.getRGB() & 0xFFFFFF;
+                            statsLabel = new JLabel(String.format(Locale.ROOT,
+                                    "<html>Avg Waiting Time: <b style='color: #%06X;'>%.2f</b> &nbsp; Avg Turnaround Time: <b style='color: #%06X;'>%.2f</b>"
+                                            + " &nbsp; Avg Response Time: <b style='color: #%06X;'>%.2f</b>"
+                                            + "<br>Waiting p50 / p95 / p99: <b style='color: #%06X;'>%d / %d / %d</b>"
+                                            + "<br>Throughput: <b style='color: #%06X;'>%.3f</b>/unit &nbsp; Utilization: <b style='color: #%06X;'>%.1f%%</b>"
+                                            + " &nbsp; Context Switches: <b style='color: #%06X;'>%d</b>%s</html>",
+                                    white, summary.averageWaitingTime, white, summary.averageTurnaroundTime,
+                                    white, summary.averageResponseTime,
+                                    white, summary.waitingP50, summary.waitingP95, summary.waitingP99,
+                                    white, summary.throughput, white, summary.utilization * 100,
+                                    white, summary.contextSwitches, cpuStats
+                            ));
+                        } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                            statsLabel = new JLabel("Failed: " + e.getMessage());
+                        }
+                    }
+                    statsLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+                    statsLabel.setForeground(TEXT_COLOR); // Still set foreground of JLabel itself to TEXT_COLOR
+                    statsLabel.setBorder(new EmptyBorder(5, 0, 0, 0)); // Padding below algorithm name
+
+                    algoPanel.remove(progressBar);
+                    algoPanel.add(statsLabel, BorderLayout.CENTER);
+                    algoPanel.revalidate();
+                    algoPanel.repaint();
+
+                    if (--remaining[0] == 0) {
+                        cancelButton.setEnabled(false);
+                    }
+                }
+            };
+            workers.add(worker);
+        }
+
+        contentPanel.add(resultsPanel, BorderLayout.CENTER);
+        dialog.add(contentPanel, BorderLayout.CENTER);
+
+        // Add cancel and close buttons; closing the dialog also stops any runs still in progress
+        cancelButton.addActionListener(e -> workers.forEach(worker -> worker.cancel(true)));
         JButton closeButton = createStyledButton("Close");
         closeButton.addActionListener(e -> dialog.dispose());
+        // One table says little about typical behaviour; compare on many random workloads of the same size
+        JButton monteCarloButton = createStyledButton("Random Workloads");
+        monteCarloButton.addActionListener(e -> showMonteCarloDialog(comparisonWorkload.size(), cpus));
+        dialog.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                workers.forEach(worker -> worker.cancel(true));
+            }
+        });
         JPanel buttonPanel = new JPanel();
         buttonPanel.setBackground(DARK_BACKGROUND);
         buttonPanel.setBorder(new EmptyBorder(10, 0, 10, 0)); // Padding for button
+        buttonPanel.add(cancelButton);
+        buttonPanel.add(monteCarloButton);
+        buttonPanel.add(closeButton);
+        dialog.add(buttonPanel, BorderLayout.SOUTH);
+
+        // Start all runs before the modal dialog blocks; results arrive on the event thread
+        workers.forEach(SwingWorker::execute);
+        dialog.setVisible(true);
+    }
+
+    // Sweeps the Dynamic Priority Boost weights over the current table and lets the user apply a point of the
+    // Pareto front; later dynamic runs, here and in the comparison, use the applied weights
+    private void showWeightSweepDialog() {
+        if (model == null || model.getRowCount() == 0) {
+            JOptionPane.showMessageDialog(this,
+                    "No process data to tune for. Please create a table and enter processes first.",
+                    "Tuning Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (table.isEditing()) {
+            table.getCellEditor().stopCellEditing();
+        }
+        int row = model.firstInvalidRow();
+        if (row >= 0) {
+            JOptionPane.showMessageDialog(this, "Invalid or missing input at row " + (row + 1) + ". Please fix it before tuning.",
+                    "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        Workload sweepWorkload = model.toWorkload();
+        int cpus = readCpuCount();
+        if (cpus < 0) {
+            return;
+        }
+
+        JDialog dialog = new JDialog(this, "Tune Dynamic Priority Boost", true);
+        dialog.setLayout(new BorderLayout());
+        dialog.setSize(650, 500);
+        dialog.setLocationRelativeTo(this);
+
+        JPanel contentPanel = new JPanel(new BorderLayout());
+        contentPanel.setBackground(DARK_BACKGROUND);
+        contentPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        JLabel titleLabel = new JLabel("Pareto Front of Weights", JLabel.CENTER);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        titleLabel.setForeground(ACCENT_COLOR);
+        titleLabel.setBorder(new EmptyBorder(0, 0, 10, 0));
+        contentPanel.add(titleLabel, BorderLayout.NORTH);
+
+        JLabel statusLabel = new JLabel(String.format(Locale.ROOT, "Current weights: burst %.2f, wait %.2f. Evaluating...",
+                burstWeight, waitWeight));
+        statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        statusLabel.setForeground(TEXT_COLOR);
+        statusLabel.setBorder(new EmptyBorder(10, 0, 0, 0));
+        contentPanel.add(statusLabel, BorderLayout.SOUTH);
+
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setForeground(ACCENT_COLOR);
+        progressBar.setBackground(MEDIUM_BACKGROUND);
+        contentPanel.add(progressBar, BorderLayout.CENTER);
+        dialog.add(contentPanel, BorderLayout.CENTER);
+
+        JButton applyButton = createStyledButton("Apply");
+        applyButton.setEnabled(false);
+        JButton closeButton = createStyledButton("Close");
+        closeButton.addActionListener(e -> dialog.dispose());
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setBackground(DARK_BACKGROUND);
+        buttonPanel.setBorder(new EmptyBorder(10, 0, 10, 0));
+        buttonPanel.add(applyButton);
+        buttonPanel.add(closeButton);
+        dialog.add(buttonPanel, BorderLayout.SOUTH);
+
+        // A pool of its own, so closing the dialog can stop the sweep without touching other background work
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool();
+        double[][] weights = WeightSweep.grid(
+                WeightSweep.BURST_WEIGHTS[0], WeightSweep.BURST_WEIGHTS[1], (int) WeightSweep.BURST_WEIGHTS[2],
+                WeightSweep.WAIT_WEIGHTS[0], WeightSweep.WAIT_WEIGHTS[1], (int) WeightSweep.WAIT_WEIGHTS[2]);
+        SwingWorker<WeightSweep.Point[], Void> worker = new SwingWorker<WeightSweep.Point[], Void>() {
+            @Override
+            protected WeightSweep.Point[] doInBackground() {
+                return WeightSweep.paretoFront(WeightSweep.evaluate(sweepWorkload, cpus, weights, pool));
+            }
+
+            @Override
+            protected void done() {
+                pool.shutdown();
+                if (isCancelled()) {
+                    return;
+                }
+                WeightSweep.Point[] front;
+                try {
+                    front = get();
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    statusLabel.setText("Failed: " + e.getMessage());
+                    contentPanel.remove(progressBar);
+                    contentPanel.revalidate();
+                    return;
+                }
+                String[] columns = {"Burst Weight", "Wait Weight", "Avg Waiting Time", "Avg Turnaround Time"};
+                JTable frontTable = new JTable(new AbstractTableModel() {
+                    @Override
+                    public int getRowCount() {
+                        return front.length;
+                    }
+
+                    @Override
+                    public int getColumnCount() {
+                        return columns.length;
+                    }
+
+                    @Override
+                    public String getColumnName(int column) {
+                        return columns[column];
+                    }
+
+                    @Override
+                    public Object getValueAt(int row, int column) {
+                        WeightSweep.Point point = front[row];
+                        switch (column) {
+                            case 0: return String.format(Locale.ROOT, "%.2f", point.burstWeight);
+                            case 1: return String.format(Locale.ROOT, "%.2f", point.waitWeight);
+                            case 2: return String.format(Locale.ROOT, "%.2f", point.averageWaitingTime);
+                            default: return String.format(Locale.ROOT, "%.2f", point.averageTurnaroundTime);
+                        }
+                    }
+                });
+                styleTable(frontTable);
+                frontTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+                frontTable.getSelectionModel().addListSelectionListener(e -> applyButton.setEnabled(frontTable.getSelectedRow() >= 0));
+                applyButton.addActionListener(e -> {
+                    WeightSweep.Point point = front[frontTable.getSelectedRow()];
+                    burstWeight = point.burstWeight;
+                    waitWeight = point.waitWeight;
+                    statusLabel.setText(String.format(Locale.ROOT, "Applied: burst %.2f, wait %.2f. Dynamic runs now use these weights.",
+                            burstWeight, waitWeight));
+                });
+
+                contentPanel.remove(progressBar);
+                contentPanel.add(new JScrollPane(frontTable), BorderLayout.CENTER);
+                statusLabel.setText(String.format(Locale.ROOT, "Current weights: burst %.2f, wait %.2f. %d of %d pairs are on the front.",
+                        burstWeight, waitWeight, front.length, weights.length));
+                contentPanel.revalidate();
+                contentPanel.repaint();
+            }
+        };
+        dialog.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                worker.cancel(true);
+                pool.shutdownNow();
+            }
+        });
+
+        worker.execute();
+        dialog.setVisible(true);
+    }
+
+    // Monte Carlo comparison: every algorithm in Scheduler.ALGORITHM_NAMES on many generated workloads, with
+    // confidence intervals and win rates. The seed makes a run repeatable.
+    private void showMonteCarloDialog(int processCount, int cpus) {
+        JDialog dialog = new JDialog(this, "Random Workload Comparison", true);
+        dialog.setLayout(new BorderLayout());
+        dialog.setSize(760, 420);
+        dialog.setLocationRelativeTo(this);
+
+        JPanel contentPanel = new JPanel(new BorderLayout());
+        contentPanel.setBackground(DARK_BACKGROUND);
+        contentPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        JPanel formPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        formPanel.setBackground(DARK_BACKGROUND);
+        JTextField workloadsField = createStyledField("1000", 5);
+        JTextField processesField = createStyledField(String.valueOf(processCount), 4);
+        JTextField seedField = createStyledField("42", 5);
+        JComboBox<String> burstsBox = new JComboBox<>(WorkloadGenerator.BURST_DISTRIBUTIONS);
+        String[] labels = {"Workloads:", "Processes:", "Bursts:", "Seed:"};
+        JComponent[] fields = {workloadsField, processesField, burstsBox, seedField};
+        for (int i = 0; i < labels.length; i++) {
+            JLabel label = new JLabel(labels[i]);
+            label.setForeground(TEXT_COLOR);
+            label.setFont(new Font("Segoe UI", Font.BOLD, 14));
+            formPanel.add(label);
+            formPanel.add(fields[i]);
+        }
+        contentPanel.add(formPanel, BorderLayout.NORTH);
+
+        JLabel statusLabel = new JLabel(cpus == 1 ? "Press Run to start." : "Press Run to start (" + cpus + " CPUs).");
+        statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        statusLabel.setForeground(TEXT_COLOR);
+        statusLabel.setBorder(new EmptyBorder(10, 0, 0, 0));
+        contentPanel.add(statusLabel, BorderLayout.SOUTH);
+        dialog.add(contentPanel, BorderLayout.CENTER);
+
+        JButton runButton = createStyledButton("Run");
+        JButton closeButton = createStyledButton("Close");
+        closeButton.addActionListener(e -> dialog.dispose());
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setBackground(DARK_BACKGROUND);
+        buttonPanel.setBorder(new EmptyBorder(10, 0, 10, 0));
+        buttonPanel.add(runButton);
         buttonPanel.add(closeButton);
         dialog.add(buttonPanel, BorderLayout.SOUTH);
 
+        // A pool of its own, so closing the dialog stops the runs without touching other background work
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool();
+        JComponent[] results = {null}; // Table or progress bar currently shown
+        runButton.addActionListener(e -> {
+            WorkloadGenerator generator = new WorkloadGenerator();
+            int workloads;
+            long seed;
+            try {
+                workloads = Integer.parseInt(workloadsField.getText().trim());
+                generator.processCount = Integer.parseInt(processesField.getText().trim());
+                seed = Long.parseLong(seedField.getText().trim());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(dialog, "Please enter whole numbers for the workloads, processes and seed.");
+                return;
+            }
+            if (workloads <= 0 || generator.processCount <= 0) {
+                JOptionPane.showMessageDialog(dialog, "Please enter a positive number of workloads and processes.");
+                return;
+            }
+            generator.burstDistribution = (String) burstsBox.getSelectedItem();
+
+            JProgressBar progressBar = new JProgressBar();
+            progressBar.setIndeterminate(true);
+            progressBar.setForeground(ACCENT_COLOR);
+            progressBar.setBackground(MEDIUM_BACKGROUND);
+            progressBar.setBorder(new EmptyBorder(40, 0, 40, 0));
+            showMonteCarloResult(contentPanel, results, progressBar);
+            statusLabel.setText("Scheduling " + workloads + " workloads...");
+            runButton.setEnabled(false);
+
+            long start = System.nanoTime();
+            new SwingWorker<MonteCarlo.Summary[], Void>() {
+                @Override
+                protected MonteCarlo.Summary[] doInBackground() {
+                    return MonteCarlo.run(generator, workloads, seed, cpus, burstWeight, waitWeight, pool);
+                }
+
+                @Override
+                protected void done() {
+                    runButton.setEnabled(true);
+                    MonteCarlo.Summary[] summaries;
+                    try {
+                        summaries = get();
+                    } catch (InterruptedException | java.util.concurrent.ExecutionException | java.util.concurrent.CancellationException ex) {
+                        statusLabel.setText("Failed: " + ex.getMessage());
+                        return;
+                    }
+                    String[] columns = {"Algorithm", "Mean Waiting (95% CI)", "Mean Turnaround (95% CI)", "Wins (Waiting)", "Wins (Turnaround)"};
+                    String[][] rows = new String[summaries.length][];
+                    for (MonteCarlo.Summary summary : summaries) {
+                        rows[summary.algorithm] = new String[]{
+                                Scheduler.ALGORITHM_NAMES[summary.algorithm].replace(" Scheduling", ""),
+                                String.format(Locale.ROOT, "%.2f \u00B1 %.2f", summary.meanWaitingTime, summary.waitingTimeCi),
+                                String.format(Locale.ROOT, "%.2f \u00B1 %.2f", summary.meanTurnaroundTime, summary.turnaroundTimeCi),
+                                String.format(Locale.ROOT, "%.1f%%", summary.waitingWinRate * 100),
+                                String.format(Locale.ROOT, "%.1f%%", summary.turnaroundWinRate * 100)};
+                    }
+                    JTable resultTable = new JTable(rows, columns);
+                    resultTable.setEnabled(false);
+                    styleTable(resultTable);
+                    showMonteCarloResult(contentPanel, results, new JScrollPane(resultTable));
+                    statusLabel.setText(String.format(Locale.ROOT, "%d workloads of %d processes in %.2f s, seed %d",
+                            workloads, generator.processCount, (System.nanoTime() - start) / 1e9, seed));
+                }
+            }.execute();
+        });
+        dialog.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                pool.shutdownNow();
+            }
+        });
+
         dialog.setVisible(true);
     }
+
+    // Replaces the component in the middle of the Monte Carlo dialog
+    private static void showMonteCarloResult(JPanel contentPanel, JComponent[] current, JComponent next) {
+        if (current[0] != null) {
+            contentPanel.remove(current[0]);
+        }
+        current[0] = next;
+        contentPanel.add(next, BorderLayout.CENTER);
+        contentPanel.revalidate();
+        contentPanel.repaint();
+    }
 }
\ No newline at end of file